@@ -14,6 +14,7 @@ import com.intellij.execution.ExecutionBundle;
 import com.intellij.execution.executors.DefaultRunExecutor;
 import com.intellij.execution.filters.Filter;
 import com.intellij.execution.filters.HyperlinkInfo;
+import com.intellij.execution.process.BaseProcessHandler;
 import com.intellij.execution.process.ColoredProcessHandler;
 import com.intellij.execution.process.OSProcessHandler;
 import com.intellij.execution.process.ProcessAdapter;
@@ -51,9 +52,13 @@ import com.jediterm.terminal.HyperlinkStyle;
 import com.jediterm.terminal.Terminal;
 import com.jediterm.terminal.TerminalDataStream;
 import com.jediterm.terminal.TerminalStarter;
+import com.jediterm.terminal.TextStyle;
 import com.jediterm.terminal.TtyConnector;
+import com.jediterm.terminal.model.CharBuffer;
 import com.jediterm.terminal.model.JediTerminal;
+import com.jediterm.terminal.model.LinkInfo;
 import com.jediterm.terminal.model.StyleState;
+import com.jediterm.terminal.model.TerminalLine;
 import com.jediterm.terminal.model.TerminalTextBuffer;
 import com.jediterm.terminal.ui.settings.SettingsProvider;
 import com.pty4j.PtyProcess;
@@ -67,7 +72,9 @@ import java.awt.Color;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 
 /**
  *  This class is similar to the TerminalExecutionConsole class by JetBrains (v. 2019.3) with the difference that can
@@ -84,16 +91,30 @@ public class CommonTerminalExecutionConsole implements ConsoleView, ObservableCo
     private final Project myProject;
     private final String tabTitle;
     private final AppendableTerminalDataStream myDataStream;
+    private final ExecTerminalWriter myWriter;
+    private final ExecScrollback myScrollback;
+    private final ExecHeavyFilters myHeavyFilters;
     private final AtomicBoolean myAttachedToProcess = new AtomicBoolean(false);
-    private volatile boolean myLastCR = false;
     private ProcessHandler processHandler;
     private ProcessAdapter processAdapter;
     private boolean contentToBeStarted = false;
-    private static final int ESC = 27;
 
     private boolean myEnterKeyDefaultCodeEnabled = true;
 
     public CommonTerminalExecutionConsole(@NotNull Project project, @Nullable ProcessHandler processHandler, String tabTitle) {
+        this(project, processHandler, tabTitle, -1);
+    }
+
+    /**
+     * @param project the project
+     * @param processHandler the process handler to attach to, may be null
+     * @param tabTitle the title of the tab
+     * @param bufferMaxLines the maximum number of lines of the scrollback buffer, the oldest lines are dropped once it
+     *                       is exceeded. The default of the IDE is used if it is not positive. The lines that can be
+     *                       searched, see {@link #find(String, long)}, are capped alike.
+     */
+    public CommonTerminalExecutionConsole(@NotNull Project project, @Nullable ProcessHandler processHandler, String tabTitle,
+                                          int bufferMaxLines) {
         myProject = project;
         this.tabTitle = tabTitle;
         JBTerminalSystemSettingsProviderBase provider = new JBTerminalSystemSettingsProviderBase() {
@@ -101,33 +122,42 @@ public class CommonTerminalExecutionConsole implements ConsoleView, ObservableCo
             public HyperlinkStyle.HighlightMode getHyperlinkHighlightingMode() {
                 return HyperlinkStyle.HighlightMode.ALWAYS;
             }
+
+            @Override
+            public int getBufferMaxLinesCount() {
+                return bufferMaxLines > 0 ? bufferMaxLines : super.getBufferMaxLinesCount();
+            }
         };
+        myScrollback = new ExecScrollback(provider.getBufferMaxLinesCount());
+        myHeavyFilters = new ExecHeavyFilters(myScrollback, this::applyLinks, this);
         myDataStream = new AppendableTerminalDataStream();
+        myWriter = new ExecTerminalWriter(myDataStream::append);
         myTerminalWidget = new ConsoleTerminalWidget(project, provider);
         if (processHandler != null) {
             attachToProcess(processHandler);
         }
     }
 
-    private void printText(@NotNull String text, @Nullable ConsoleViewContentType contentType) throws IOException {
+    private void printText(@NotNull String text, @Nullable ConsoleViewContentType contentType, boolean convertToCRLF) {
+        // printing waits while paused, unless printed in the UI thread which resumes it
+        boolean mayBlock = !ApplicationManager.getApplication().isDispatchThread();
+        printText(text, contentType, convertToCRLF, () -> mayBlock);
+    }
+
+    private void printText(@NotNull String text, @Nullable ConsoleViewContentType contentType, boolean convertToCRLF,
+                           @NotNull BooleanSupplier mayBlock) {
         Color foregroundColor = contentType != null ? contentType.getAttributes().getForegroundColor() : null;
-        if (foregroundColor != null) {
-            myDataStream.append(encodeColor(foregroundColor));
+        myWriter.write(text, foregroundColor, convertToCRLF, mayBlock);
+        try {
+            myScrollback.append(text);
+        } catch (IOException e) {
+            LOG.info(e);
         }
-
-        myDataStream.append(text);
-
-        if (foregroundColor != null) {
-            myDataStream.append((char) ESC + "[39m"); //restore default foreground color
+        if (text.indexOf('\n') >= 0) {
+            myHeavyFilters.schedule();
         }
     }
 
-    @NotNull
-    private static String encodeColor(@NotNull Color color) {
-        return ((char)ESC) + "[" + "38;2;" + color.getRed() + ";" + color.getGreen() + ";" +
-                color.getBlue() + "m";
-    }
-
     /**
      * @param enabled the auto new line flag
      * @deprecated use {@link #withEnterKeyDefaultCodeEnabled(boolean)}
@@ -159,31 +189,7 @@ public class CommonTerminalExecutionConsole implements ConsoleView, ObservableCo
         // Convert line separators to CRLF to behave like ConsoleViewImpl.
         // For example, stacktraces passed to com.intellij.execution.testframework.sm.runner.SMTestProxy.setTestFailed have
         // only LF line separators on Unix.
-        String textCRLF = convertTextToCRLF(text);
-        try {
-            printText(textCRLF, contentType);
-        }
-        catch (IOException e) {
-            LOG.info(e);
-        }
-    }
-
-    @NotNull
-    private String convertTextToCRLF(@NotNull String text) {
-        if (text.isEmpty()) return text;
-        // Handle the case when \r and \n are in different chunks: "text1 \r" and "\n text2"
-        boolean preserveFirstLF = text.startsWith(LineSeparator.LF.getSeparatorString()) && myLastCR;
-        boolean preserveLastCR = text.endsWith(LineSeparator.CR.getSeparatorString());
-        myLastCR = preserveLastCR;
-        String textToConvert = text.substring(preserveFirstLF ? 1 : 0, preserveLastCR ? text.length() - 1 : text.length());
-        String textCRLF = StringUtil.convertLineSeparators(textToConvert, LineSeparator.CRLF.getSeparatorString());
-        if (preserveFirstLF) {
-            textCRLF = LineSeparator.LF.getSeparatorString() + textCRLF;
-        }
-        if (preserveLastCR) {
-            textCRLF += LineSeparator.CR.getSeparatorString();
-        }
-        return textCRLF;
+        printText(text, contentType, true);
     }
 
     /**
@@ -191,12 +197,79 @@ public class CommonTerminalExecutionConsole implements ConsoleView, ObservableCo
      */
     @Override
     public void clear() {
-        myLastCR = false;
+        myWriter.clear();
+        myHeavyFilters.cancel();
+        myScrollback.clear();
         myTerminalWidget.getTerminalPanel().clearBuffer();
     }
 
+    /**
+     * Scrolls the terminal so that the line with the given offset is at the top. Lines that are no longer in the
+     * buffer of the terminal scroll to its first line. The line is found in the printed text, it may differ from the
+     * terminal if the process moved the cursor or long lines were wrapped.
+     *
+     * @param offset the offset of a character that was printed
+     */
     @Override
     public void scrollTo(int offset) {
+        scrollToLine(myScrollback.getLineOfOffset(offset));
+    }
+
+    /**
+     * Scrolls the terminal so that the given line is at the top.
+     *
+     * @param line the line to scroll to, 0 is the first line that was printed
+     * @see #scrollTo(int)
+     */
+    public void scrollToLine(int line) {
+        int lineCount = myScrollback.getLineCount();
+        ApplicationManager.getApplication().invokeLater(() -> {
+            JBTerminalWidget widget = myTerminalWidget;
+            if (widget == null) {
+                return;
+            }
+            JBTerminalPanel panel = widget.getTerminalPanel();
+            BoundedRangeModel model = panel.getBoundedRangeModel();
+            // 0 shows the last screen, negative values scroll up into the history
+            int firstLineOfLastScreen = lineCount - panel.getTerminalTextBuffer().getScreenLinesCount();
+            int value = Math.max(model.getMinimum(), Math.min(0, line - firstLineOfLastScreen));
+            model.setValue(value);
+        }, ModalityState.any());
+    }
+
+    /**
+     * Searches the given text in the printed text, starting at the given offset. The most recent lines are searched,
+     * as many as the buffer of the terminal holds, see {@code bufferMaxLines}.
+     *
+     * @param text the text to search, within a line
+     * @param fromOffset the offset to start at
+     * @return the offset of the text or -1 if it was not found
+     * @throws IOException if the printed text could not be read
+     */
+    public long find(@NotNull String text, long fromOffset) throws IOException {
+        return myScrollback.find(text, fromOffset);
+    }
+
+    /**
+     * @param offset the offset of a character that was printed
+     * @return the line of the given offset
+     */
+    public int getLineOfOffset(long offset) {
+        return myScrollback.getLineOfOffset(offset);
+    }
+
+    /**
+     * @param line the line, 0 is the first line that was printed
+     * @return the text of the given line
+     * @throws IOException if the printed text could not be read
+     */
+    @NotNull
+    public String getLine(int line) throws IOException {
+        return myScrollback.getLine(line);
+    }
+
+    public int getLineCount() {
+        return myScrollback.getLineCount();
     }
 
     @Override
@@ -231,26 +304,22 @@ public class CommonTerminalExecutionConsole implements ConsoleView, ObservableCo
             @Override
             public void onTextAvailable(@NotNull ProcessEvent event, @NotNull Key outputType) {
                 if (attachToProcessOutput) {
-                    try {
-                        ConsoleViewContentType contentType = null;
-                        if (outputType != ProcessOutputTypes.STDOUT) {
-                            contentType = ConsoleViewContentType.getConsoleViewType(outputType);
-                        }
-
-                        String text = event.getText();
-                        if (outputType == ProcessOutputTypes.SYSTEM) {
-                            text = StringUtil.convertLineSeparators(text, LineSeparator.CRLF.getSeparatorString());
-                        }
-                        printText(text, contentType);
+                    ConsoleViewContentType contentType = null;
+                    if (outputType != ProcessOutputTypes.STDOUT) {
+                        contentType = ConsoleViewContentType.getConsoleViewType(outputType);
                     }
-                    catch (IOException e) {
-                        LOG.info(e);
+
+                    String text = event.getText();
+                    if (outputType == ProcessOutputTypes.SYSTEM) {
+                        text = StringUtil.convertLineSeparators(text, LineSeparator.CRLF.getSeparatorString());
                     }
+                    printText(text, contentType, false, () -> mayBlockReader(processHandler));
                 }
             }
 
             @Override
             public void processTerminated(@NotNull ProcessEvent event) {
+                myWriter.flush();
                 ApplicationManager.getApplication().invokeLater(() -> {
                     JBTerminalWidget widget = myTerminalWidget;
                     if (widget != null) {
@@ -261,6 +330,10 @@ public class CommonTerminalExecutionConsole implements ConsoleView, ObservableCo
         };
 
         processHandler.addProcessListener(processAdapter);
+        if (processHandler instanceof ExecProcessHandler) {
+            // the shared reader thread must not wait, it skips the output of this process instead
+            ((ExecProcessHandler) processHandler).setReadSuspended(myWriter::isFull);
+        }
 
         if (contentToBeStarted) {
             ApplicationManager.getApplication().invokeLater(() -> {
@@ -273,27 +346,57 @@ public class CommonTerminalExecutionConsole implements ConsoleView, ObservableCo
     private void updateProcessHandler(ProcessHandler processHandler) {
         if (this.processHandler != null) {
             this.processHandler.removeProcessListener(processAdapter);
+            if (this.processHandler instanceof ExecProcessHandler) {
+                ((ExecProcessHandler) this.processHandler).setReadSuspended(null);
+            }
         }
         this.processHandler = processHandler;
     }
 
+    /**
+     * Returns if the thread that reads the output of the given process may wait for the paused output to be resumed.
+     * The thread of multiplexed processes is shared and must never wait, and a thread stops waiting once the process
+     * terminated so that the termination is not held back.
+     *
+     * @param processHandler the handler whose output is printed
+     * @return {@code true} if the reading thread may wait
+     */
+    private static boolean mayBlockReader(@NotNull ProcessHandler processHandler) {
+        if (ApplicationManager.getApplication().isDispatchThread()
+                || (processHandler instanceof ExecProcessHandler
+                && ((ExecProcessHandler) processHandler).isMultiplexed())
+                || processHandler.isProcessTerminating()
+                || processHandler.isProcessTerminated()) {
+            return false;
+        }
+        return !(processHandler instanceof BaseProcessHandler)
+                || ((BaseProcessHandler<?>) processHandler).getProcess().isAlive();
+    }
+
+    /**
+     * Pauses or resumes the output. While paused, the output is deferred and the terminal is not updated. The process
+     * is blocked once the deferred output reached its maximum.
+     *
+     * @param value {@code true} to pause
+     */
     @Override
     public void setOutputPaused(boolean value) {
-
+        myWriter.setPaused(value);
     }
 
     @Override
     public boolean isOutputPaused() {
-        return false;
+        return myWriter.isPaused();
     }
 
     @Override
     public boolean hasDeferredOutput() {
-        return false;
+        return myWriter.hasPending();
     }
 
     @Override
     public void performWhenNoDeferredOutput(@NotNull Runnable runnable) {
+        myWriter.whenFlushed(() -> ApplicationManager.getApplication().invokeLater(runnable, ModalityState.any()));
     }
 
     @Override
@@ -312,12 +415,12 @@ public class CommonTerminalExecutionConsole implements ConsoleView, ObservableCo
 
     @Override
     public int getContentSize() {
-        return 0;
+        return (int) Math.min(Integer.MAX_VALUE, myScrollback.getLength());
     }
 
     @Override
     public boolean canPause() {
-        return false;
+        return true;
     }
 
 
@@ -334,8 +437,66 @@ public class CommonTerminalExecutionConsole implements ConsoleView, ObservableCo
         return new AnAction[]{new ScrollToTheEndAction(), new ClearAction()};
     }
 
+    /**
+     * Starts running the filters that were added with {@link #addHeavyFilter(Filter)}.
+     */
     @Override
     public void allowHeavyFilters() {
+        myHeavyFilters.enable();
+    }
+
+    /**
+     * Adds a filter that is run on a pooled thread over the completed lines, instead of in the rendering path of
+     * the terminal like the filters of {@link #addMessageFilter(Filter)}. Suits filters that are too slow to run for
+     * each line as it is rendered. The links that it finds are added to the lines that are still in the buffer of the
+     * terminal. The filter runs once {@link #allowHeavyFilters()} was called.
+     *
+     * @param filter the filter to add
+     */
+    public void addHeavyFilter(@NotNull Filter filter) {
+        myHeavyFilters.addFilter(filter);
+    }
+
+    private void applyLinks(List<ExecHeavyFilters.Link> links, long generation) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            JBTerminalWidget widget = myTerminalWidget;
+            if (widget == null
+                    || !myHeavyFilters.isCurrent(generation)) {
+                return;
+            }
+            JBTerminalPanel panel = widget.getTerminalPanel();
+            TerminalTextBuffer buffer = panel.getTerminalTextBuffer();
+            buffer.lock();
+            try {
+                // the last printed line is at the bottom of the screen once the screen is full
+                int firstLineOnScreen = Math.max(0, myScrollback.getLineCount() - buffer.getScreenLinesCount());
+                for (ExecHeavyFilters.Link link : links) {
+                    int y = link.getLine() - firstLineOnScreen;
+                    if (y < -buffer.getHistoryLinesCount()
+                            || y >= buffer.getScreenLinesCount()) {
+                        continue;
+                    }
+                    applyLink(buffer.getLine(y), link);
+                }
+            } finally {
+                buffer.unlock();
+            }
+            panel.repaint();
+        }, ModalityState.any());
+    }
+
+    private void applyLink(TerminalLine line, ExecHeavyFilters.Link link) {
+        String text = line.getText();
+        int start = text.startsWith(link.getText(), link.getStart()) ?
+                link.getStart()
+                // the columns differ if the printed line held escape sequences
+                : text.indexOf(link.getText());
+        if (start < 0) {
+            return;
+        }
+        TextStyle style = line.getStyleAt(start);
+        LinkInfo info = new LinkInfo(() -> link.getInfo().navigate(myProject));
+        line.writeString(start, new CharBuffer(link.getText()), new HyperlinkStyle(style != null ? style : TextStyle.EMPTY, info));
     }
 
     @Override
@@ -350,9 +511,19 @@ public class CommonTerminalExecutionConsole implements ConsoleView, ObservableCo
 
     @Override
     public void dispose() {
+        // the process may outlive the console, its output must no longer be printed
+        updateProcessHandler(null);
+        myHeavyFilters.dispose();
+        myWriter.clear();
+        myWriter.setPaused(false);
+        myScrollback.dispose();
         myTerminalWidget = null;
     }
 
+    public boolean isDisposed() {
+        return myTerminalWidget == null;
+    }
+
     public static boolean isAcceptable(@NotNull ProcessHandler processHandler) {
         return processHandler instanceof OSProcessHandler &&
                 ((OSProcessHandler)processHandler).getProcess() instanceof PtyProcess &&
@@ -39,9 +39,15 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.StringReader;
 import java.net.URL;
+import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
@@ -55,6 +61,13 @@ import java.util.regex.Pattern;
 public class DownloadHelper {
 
     private static final int BUFFER_SIZE = 4096;
+    private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
+    /**
+     * The suffix of the file next to an installed tool that holds the verified SHA-256 of its archive.
+     */
+    public static final String CHECKSUM_SUFFIX = ".sha256";
 
     private static final UnaryOperator<InputStream> UNCOMPRESSOR = (input -> {
         try {
@@ -149,7 +162,8 @@ public class DownloadHelper {
             String replacement = Strings.isEmpty(CommonConstants.TOOLS_DOWNLOAD_PATH) ? CommonConstants.HOME_FOLDER : CommonConstants.TOOLS_DOWNLOAD_PATH;
             Path path = Paths.get(tool.getBaseDir().replace("$HOME", replacement), "cache", tool.getVersion(), command);
             final String cmd = path.toString();
-            if (!Files.exists(path)) {
+            if (!Files.exists(path)
+                    || !isInstalledChecksum(path, platform.getSha256())) {
                 result = downloadInBackground(toolName, platform, path, cmd, tool, version, platform.getSha256());
             } else {
                 result.complete(new ToolInstance(cmd, false));
@@ -203,14 +217,39 @@ public class DownloadHelper {
             @Override
             public void run(@NotNull ProgressIndicator progressIndicator) {
                 try {
-                    HttpRequests.request(platform.getUrl().toString()).useProxy(true).connect(request -> {
-                        downloadFile(request.getInputStream(), dlFilePath, progressIndicator, request.getConnection().getContentLength());
-                        uncompress(dlFilePath, path);
-                        if (checksum != null && !verify(dlFilePath, checksum)){
-                            throw new IOException("Failed to verify checksum for " + platform.getDlFileName());
+                    String url = platform.getUrl().toString();
+                    MessageDigest digest = checksum == null ? null : createDigest(dlFilePath);
+                    PartialDownload part = new PartialDownload(dlFilePath, url);
+                    DownloadPipeline pipeline = null;
+                    if (DownloadPipeline.isEnabled()
+                            && isArchive(dlFilePath)
+                            && part.getResumeOffset() == 0
+                            && part.getSegments().isEmpty()) {
+                        // nothing to resume, extracts while downloading instead of downloading segments and extracting after
+                        part.discard();
+                        pipeline = new DownloadPipeline(url, path, platform.getDlFileName(),
+                                input -> mapStream(dlFilePath.toString(), new BufferedInputStream(input)), digest, progressIndicator);
+                        pipeline.download();
+                    } else if (!new SegmentedDownload(url, part, progressIndicator, digest).download()) {
+                        // the server does not support ranges or the file is too small for segments
+                        downloadFile(url, part, progressIndicator, digest);
+                    }
+                    if (digest != null && !verify(digest, checksum, dlFilePath)) {
+                        part.discard();
+                        if (pipeline != null) {
+                            pipeline.discard();
                         }
-                        return cmd;
-                    });
+                        throw new IOException("Failed to verify checksum for " + platform.getDlFileName());
+                    }
+                    if (pipeline != null) {
+                        pipeline.commit();
+                    } else {
+                        part.commit();
+                        uncompress(dlFilePath, path);
+                    }
+                    if (checksum != null) {
+                        Files.write(getChecksumFile(path), checksum.toLowerCase().getBytes(StandardCharsets.US_ASCII));
+                    }
                 } catch (IOException e) {
                     result.completeExceptionally(new IOException("Error while setting tool " + toolName + ".", e));
                 }
@@ -283,20 +322,78 @@ public class DownloadHelper {
 
     }
 
-    private static void downloadFile(InputStream input, Path dlFileName, ProgressIndicator progressIndicator, long size) throws IOException {
-        byte[] buffer = new byte[BUFFER_SIZE];
-        Files.createDirectories(dlFileName.getParent());
-        try (OutputStream output = Files.newOutputStream(dlFileName)) {
-            int lg;
-            long accumulated = 0;
-            while (((lg = input.read(buffer)) > 0) && !progressIndicator.isCanceled()) {
-                output.write(buffer, 0, lg);
-                accumulated += lg;
-                progressIndicator.setFraction((double) accumulated / size);
+    static void downloadFile(String url, PartialDownload part, ProgressIndicator progressIndicator, MessageDigest digest) throws IOException {
+        if (part.isComplete()) {
+            // downloaded before but not committed, verify and commit it
+            if (digest != null) {
+                digest(part.getFile(), part.getLength(), digest);
+            }
+            return;
+        }
+        long offset = part.getResumeOffset();
+        try {
+            downloadFile(url, part, offset, progressIndicator, digest);
+        } catch (HttpRequests.HttpStatusException e) {
+            if (offset == 0
+                    || e.getStatusCode() != HTTP_RANGE_NOT_SATISFIABLE) {
+                throw e;
+            }
+            // the partial file does not fit the content, starts over
+            part.discard();
+            downloadFile(url, part, 0, progressIndicator, digest);
+        }
+    }
+
+    private static void downloadFile(String url, PartialDownload part, long offset, ProgressIndicator progressIndicator, MessageDigest digest) throws IOException {
+        HttpRequests.request(url).useProxy(true).tuner(connection -> part.requestRange(connection, offset, -1)).connect(request -> {
+            URLConnection connection = request.getConnection();
+            long start = offset;
+            if (offset == 0
+                    || !PartialDownload.isRange(connection, offset)) {
+                // the content changed or cannot be resumed
+                part.reset(connection);
+                start = 0;
+            }
+            part.getSegments().clear();
+            part.store();
+            InputStream input = request.getInputStream();
+            if (digest != null) {
+                if (start > 0) {
+                    digest(part.getFile(), start, digest);
+                }
+                input = new DigestInputStream(input, digest);
+            }
+            long size = connection.getContentLengthLong() < 0 ? -1 : start + connection.getContentLengthLong();
+            try (FileChannel channel = FileChannel.open(part.getFile(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                channel.truncate(start);
+                channel.position(start);
+                downloadFile(input, Channels.newOutputStream(channel), progressIndicator, start, size);
+            }
+            if (progressIndicator.isCanceled()) {
+                throw new IOException("Download of " + url + " was cancelled");
             }
+            if (size >= 0
+                    && Files.size(part.getFile()) != size) {
+                throw new IOException("Download of " + url + " ended at " + Files.size(part.getFile()) + " of " + size + " bytes");
+            }
+            return null;
+        });
+    }
+
+    private static void downloadFile(InputStream input, OutputStream output, ProgressIndicator progressIndicator, long offset, long size) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        DownloadProgress progress = new DownloadProgress(progressIndicator, offset, size);
+        int lg;
+        while (((lg = input.read(buffer)) > 0) && !progress.isCanceled()) {
+            output.write(buffer, 0, lg);
+            progress.add(lg);
         }
     }
 
+    private static boolean isArchive(Path dlFilePath) {
+        return MAPPERS.containsKey(FilenameUtils.getExtension(dlFilePath.toString()));
+    }
+
     private InputStream mapStream(String filename, InputStream input) {
         String extension;
         while (((extension = FilenameUtils.getExtension(filename)) != null) && MAPPERS.containsKey(extension)) {
@@ -329,31 +426,72 @@ public class DownloadHelper {
     }
 
     private void save(InputStream source, Path destination, long length) throws IOException {
-        try (OutputStream stream = Files.newOutputStream(destination)) {
+        // written aside and moved so that a tool is never found incomplete
+        Path part = destination.resolveSibling(destination.getFileName() + PartialDownload.PART_SUFFIX);
+        try (OutputStream stream = Files.newOutputStream(part)) {
             if (length == -1L) {
                 IOUtils.copy(source, stream);
             } else {
                 IOUtils.copyLarge(source, stream, 0L, length);
             }
         }
-        destination.toFile().setExecutable(true);
+        part.toFile().setExecutable(true);
+        PartialDownload.move(part, destination);
+    }
+
+    private static MessageDigest createDigest(Path path) throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Could not verify checksum for file " + path, e);
+        }
     }
 
-    private boolean verify(Path path, String checksum) throws IOException {
+    /**
+     * Adds the given number of bytes at the start of the given file to the given digest.
+     */
+    private static void digest(Path path, long length, MessageDigest digest) throws IOException {
+        byte[] buffer = new byte[DIGEST_BUFFER_SIZE];
         try (InputStream stream = Files.newInputStream(path)) {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            final byte[] buffer = new byte[BUFFER_SIZE];
-            int read = stream.read(buffer, 0, BUFFER_SIZE);
-            while (read > -1) {
+            long remaining = length;
+            int read;
+            while (remaining > 0
+                    && (read = stream.read(buffer, 0, (int) Math.min(buffer.length, remaining))) > 0) {
                 digest.update(buffer, 0, read);
-                read = stream.read(buffer, 0, BUFFER_SIZE);
+                remaining -= read;
             }
+        }
+    }
+
+    private static boolean verify(MessageDigest digest, String checksum, Path path) throws IOException {
+        try {
             return MessageDigest.isEqual(digest.digest(), Hex.decodeHex(checksum));
-        } catch (NoSuchAlgorithmException | DecoderException e) {
+        } catch (DecoderException e) {
             throw new IOException("Could not verify checksum for file " + path, e);
         }
     }
 
+    private static Path getChecksumFile(Path cmd) {
+        return cmd.resolveSibling(cmd.getFileName() + CHECKSUM_SUFFIX);
+    }
+
+    /**
+     * Returns if the installed tool was extracted from an archive with the given checksum. Tools that were installed
+     * without a checksum are taken as they are.
+     */
+    private static boolean isInstalledChecksum(Path cmd, String checksum) {
+        Path checksumFile = getChecksumFile(cmd);
+        if (checksum == null
+                || !Files.exists(checksumFile)) {
+            return true;
+        }
+        try {
+            return checksum.equalsIgnoreCase(new String(Files.readAllBytes(checksumFile), StandardCharsets.US_ASCII).trim());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
     public static class ToolInstance {
         private final String command;
         private final boolean isDownloaded;
@@ -0,0 +1,448 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.util.io.HttpRequests;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.io.FileUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Downloads an archive and extracts it at once, without writing the archive to disk. Three stages run on their own
+ * threads and are connected by bounded pipes: the network stage reads the content (and hashes it), the decompression
+ * stage decodes the archive into the chunks of its entries, the write stage writes the chunks with a
+ * {@link FileChannel}. A stage that falls behind holds the others back once its pipe is full.
+ * The entries are extracted into a staging directory next to the tool and only moved into place once the download was
+ * {@link #commit() committed}, after the checksum of the archive was verified.
+ */
+class DownloadPipeline {
+
+    private static final Logger LOG = Logger.getInstance(DownloadPipeline.class);
+
+    public static final String PIPELINED_PROPERTY = "com.redhat.devtools.intellij.common.download.pipelined";
+
+    static final int NETWORK_CHUNK_SIZE = 64 * 1024;
+    static final int WRITE_CHUNK_SIZE = 256 * 1024;
+    static final int PIPE_CAPACITY = 16;
+
+    private final String url;
+    private final Path cmd;
+    private final String archiveName;
+    private final UnaryOperator<InputStream> decoder;
+    private final MessageDigest digest;
+    private final ProgressIndicator indicator;
+    private final List<Path> entries = new ArrayList<>();
+    private Path staging;
+
+    /**
+     * @param url the url of the archive
+     * @param cmd the command of the tool, the entries are extracted next to it
+     * @param archiveName the name of the archive
+     * @param decoder decodes the content of the archive, into an {@link ArchiveInputStream} if it holds several entries
+     * @param digest the digest to hash the archive with or {@code null}
+     * @param indicator the indicator to report progress to
+     */
+    DownloadPipeline(String url, Path cmd, String archiveName, UnaryOperator<InputStream> decoder,
+                     MessageDigest digest, ProgressIndicator indicator) {
+        this.url = url;
+        this.cmd = cmd;
+        this.archiveName = archiveName;
+        this.decoder = decoder;
+        this.digest = digest;
+        this.indicator = indicator;
+    }
+
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty(PIPELINED_PROPERTY, "true"));
+    }
+
+    /**
+     * Downloads and extracts the archive into the staging directory.
+     *
+     * @throws IOException if the archive could not be downloaded or extracted, the staging directory is deleted
+     */
+    void download() throws IOException {
+        Files.createDirectories(cmd.getParent());
+        staging = Files.createTempDirectory(cmd.getParent(), archiveName + ".staging");
+        Pipe<byte[]> network = new Pipe<>(PIPE_CAPACITY);
+        Pipe<Chunk> writes = new Pipe<>(PIPE_CAPACITY);
+        Stage writer = new Stage(() -> write(writes), network, writes);
+        Stage reader = new Stage(() -> read(network), network, writes);
+        writer.start();
+        reader.start();
+        Stage decompressor = new Stage(() -> decompress(network, writes), network, writes);
+        decompressor.run();
+        try {
+            reader.join();
+            writer.join();
+        } catch (InterruptedIOException e) {
+            discard();
+            throw e;
+        }
+        IOException error = Stage.getError(decompressor, reader, writer);
+        if (error != null) {
+            discard();
+            throw error;
+        }
+    }
+
+    /**
+     * Moves the extracted entries into place and deletes the staging directory.
+     *
+     * @throws IOException if an entry could not be moved
+     */
+    void commit() throws IOException {
+        for (Path entry : entries) {
+            Path destination = cmd.resolveSibling(staging.relativize(entry).toString());
+            Files.createDirectories(destination.getParent());
+            PartialDownload.move(entry, destination);
+        }
+        discard();
+    }
+
+    /**
+     * Deletes the staging directory and the entries that were extracted into it.
+     */
+    void discard() {
+        if (staging == null) {
+            return;
+        }
+        try {
+            FileUtils.deleteDirectory(staging.toFile());
+        } catch (IOException e) {
+            LOG.warn("Could not delete staging directory " + staging, e);
+        }
+    }
+
+    private void read(Pipe<byte[]> network) throws IOException {
+        HttpRequests.request(url).useProxy(true).connect(request -> {
+            long size = request.getConnection().getContentLengthLong();
+            DownloadProgress progress = new DownloadProgress(indicator, 0, size);
+            InputStream input = request.getInputStream();
+            if (digest != null) {
+                input = new DigestInputStream(input, digest);
+            }
+            while (true) {
+                byte[] chunk = new byte[NETWORK_CHUNK_SIZE];
+                int length = input.readNBytes(chunk, 0, chunk.length);
+                if (progress.isCanceled()) {
+                    throw new IOException("Download of " + url + " was cancelled");
+                }
+                if (length == 0) {
+                    break;
+                }
+                network.put(length == chunk.length ? chunk : Arrays.copyOf(chunk, length));
+                progress.add(length);
+            }
+            return null;
+        });
+        network.close();
+    }
+
+    private void decompress(Pipe<byte[]> network, Pipe<Chunk> writes) throws IOException {
+        try (InputStream input = decoder.apply(new PipeInputStream(network))) {
+            if (input instanceof ArchiveInputStream) {
+                ArchiveInputStream archive = (ArchiveInputStream) input;
+                ArchiveEntry entry;
+                while ((entry = archive.getNextEntry()) != null) {
+                    if (!entry.isDirectory()) {
+                        decompress(archive, toStaging(entry.getName()), writes);
+                    }
+                }
+            } else {
+                decompress(input, toStaging(cmd.getFileName().toString()), writes);
+            }
+            // the decoder may stop before the end of the content, the network stage hashes it to the end
+            while (network.take() != null) {
+                // drain the pipe
+            }
+        } catch (RuntimeException e) {
+            throw new IOException(e);
+        }
+        writes.close();
+    }
+
+    private void decompress(InputStream input, Path file, Pipe<Chunk> writes) throws IOException {
+        entries.add(file);
+        while (true) {
+            byte[] chunk = new byte[WRITE_CHUNK_SIZE];
+            int length = input.readNBytes(chunk, 0, chunk.length);
+            if (length == 0) {
+                break;
+            }
+            writes.put(new Chunk(file, ByteBuffer.wrap(chunk, 0, length)));
+        }
+        // marks the end of the file
+        writes.put(new Chunk(file, null));
+    }
+
+    private Path toStaging(String name) throws IOException {
+        Path file = staging.resolve(name).normalize();
+        if (!file.startsWith(staging)) {
+            throw new IOException("Entry " + name + " of " + archiveName + " is outside of the tool directory");
+        }
+        return file;
+    }
+
+    private static void write(Pipe<Chunk> writes) throws IOException {
+        FileChannel channel = null;
+        try {
+            Chunk chunk;
+            while ((chunk = writes.take()) != null) {
+                if (chunk.data == null) {
+                    if (channel != null) {
+                        channel.close();
+                        channel = null;
+                    } else {
+                        // an empty entry
+                        Files.createFile(chunk.file);
+                    }
+                    chunk.file.toFile().setExecutable(true);
+                    continue;
+                }
+                if (channel == null) {
+                    Files.createDirectories(chunk.file.getParent());
+                    channel = FileChannel.open(chunk.file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                }
+                while (chunk.data.hasRemaining()) {
+                    channel.write(chunk.data);
+                }
+            }
+        } finally {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    private static class Chunk {
+        private final Path file;
+        private final ByteBuffer data;
+
+        private Chunk(Path file, ByteBuffer data) {
+            this.file = file;
+            this.data = data;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Work {
+        void run() throws IOException;
+    }
+
+    /**
+     * A stage of the pipeline. A stage that fails breaks the pipes so that the other stages stop too.
+     */
+    private static class Stage implements Runnable {
+        private final Work work;
+        private final Pipe<?>[] pipes;
+        private Thread thread;
+        private volatile IOException error;
+
+        private Stage(Work work, Pipe<?>... pipes) {
+            this.work = work;
+            this.pipes = pipes;
+        }
+
+        private void start() {
+            thread = ExecExecutors.getThreadFactory().newThread(this);
+            thread.start();
+        }
+
+        private void join() throws InterruptedIOException {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (Pipe<?> pipe : pipes) {
+                    pipe.fail(e);
+                }
+                throw new InterruptedIOException("Interrupted while downloading");
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                work.run();
+            } catch (Throwable e) {
+                // any failure has to break the pipes, the other stages would otherwise wait forever
+                error = e instanceof IOException ?
+                        (IOException) e
+                        : new IOException("Stage of the download failed", e);
+                for (Pipe<?> pipe : pipes) {
+                    pipe.fail(e);
+                }
+            }
+        }
+
+        /**
+         * Returns the error of the stage that failed first. The other stages fail because the pipes were broken.
+         */
+        private static IOException getError(Stage... stages) {
+            IOException first = null;
+            for (Stage stage : stages) {
+                if (stage.error != null
+                        && !isBrokenPipe(stage.error)) {
+                    return stage.error;
+                }
+                if (first == null) {
+                    first = stage.error;
+                }
+            }
+            return first;
+        }
+
+        private static boolean isBrokenPipe(Throwable error) {
+            // the decoder may wrap the error of the pipe that it reads
+            for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+                if (cause instanceof BrokenPipeException) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class BrokenPipeException extends IOException {
+        private BrokenPipeException(Throwable cause) {
+            super("Another stage of the download failed", cause);
+        }
+    }
+
+    /**
+     * A bounded queue between two stages. Putting waits while the pipe is full, taking waits while it is empty and
+     * returns {@code null} once it is closed and empty. Both fail once the pipe is broken.
+     */
+    private static class Pipe<T> {
+        private final ArrayDeque<T> queue = new ArrayDeque<>();
+        private final int capacity;
+        private boolean closed = false;
+        private Throwable failure;
+
+        private Pipe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private synchronized void put(T item) throws IOException {
+            while (queue.size() >= capacity
+                    && failure == null) {
+                await();
+            }
+            if (failure != null) {
+                throw new BrokenPipeException(failure);
+            }
+            queue.add(item);
+            notifyAll();
+        }
+
+        private synchronized T take() throws IOException {
+            while (queue.isEmpty()
+                    && !closed
+                    && failure == null) {
+                await();
+            }
+            if (failure != null) {
+                throw new BrokenPipeException(failure);
+            }
+            T item = queue.poll();
+            notifyAll();
+            return item;
+        }
+
+        private synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+
+        private synchronized void fail(Throwable failure) {
+            if (this.failure == null) {
+                this.failure = failure;
+            }
+            queue.clear();
+            notifyAll();
+        }
+
+        private void await() throws InterruptedIOException {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while downloading");
+            }
+        }
+    }
+
+    /**
+     * Reads the chunks of a pipe.
+     */
+    private static class PipeInputStream extends InputStream {
+        private final Pipe<byte[]> pipe;
+        private byte[] chunk;
+        private int position;
+
+        private PipeInputStream(Pipe<byte[]> pipe) {
+            this.pipe = pipe;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return chunk[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int read = Math.min(length, chunk.length - position);
+            System.arraycopy(chunk, position, buffer, offset, read);
+            position += read;
+            return read;
+        }
+
+        private boolean fill() throws IOException {
+            while (chunk == null
+                    || position == chunk.length) {
+                chunk = pipe.take();
+                position = 0;
+                if (chunk == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
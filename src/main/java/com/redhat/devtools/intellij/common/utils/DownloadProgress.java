@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports the bytes that were downloaded to a {@link ProgressIndicator}, at most every
+ * {@value #UPDATE_INTERVAL_MILLIS} ms rather than for each buffer that was read. Several threads may report to the
+ * same progress.
+ */
+class DownloadProgress {
+
+    static final long UPDATE_INTERVAL_MILLIS = 100;
+
+    private static final long UPDATE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(UPDATE_INTERVAL_MILLIS);
+
+    private final ProgressIndicator indicator;
+    private final long total;
+    private final AtomicLong downloaded;
+    private final AtomicLong lastUpdate = new AtomicLong(System.nanoTime() - UPDATE_INTERVAL_NANOS);
+
+    /**
+     * @param indicator the indicator to report to
+     * @param downloaded the bytes that were downloaded before
+     * @param total the bytes to download or -1 if it is not known
+     */
+    DownloadProgress(ProgressIndicator indicator, long downloaded, long total) {
+        this.indicator = indicator;
+        this.downloaded = new AtomicLong(downloaded);
+        this.total = total;
+    }
+
+    /**
+     * Adds the given number of bytes, the indicator is updated if it was not for a while or if the download completed.
+     *
+     * @param bytes the bytes that were downloaded
+     */
+    void add(long bytes) {
+        long current = downloaded.addAndGet(bytes);
+        if (total <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long last = lastUpdate.get();
+        if ((now - last >= UPDATE_INTERVAL_NANOS
+                && lastUpdate.compareAndSet(last, now))
+                || current >= total) {
+            indicator.setFraction((double) current / total);
+        }
+    }
+
+    boolean isCanceled() {
+        return indicator.isCanceled();
+    }
+}
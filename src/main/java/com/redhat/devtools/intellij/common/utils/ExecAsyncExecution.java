@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A process that is executed without blocking the caller. The result is completed once the process exited and its
+ * output was read. The process and all its descendants are killed if the result is cancelled, if the given progress
+ * indicator is cancelled or if the process did not exit before the deadline. The execution is recorded in
+ * {@link ExecTelemetry} once the result is completed, whichever way.
+ */
+class ExecAsyncExecution {
+
+    private static final long WATCHDOG_INTERVAL_MILLIS = 100;
+
+    private final CompletableFuture<ExecHelper.ExecResult> result = new CompletableFuture<>();
+    private final boolean checkExitCode;
+    private final long deadline;
+    private final @Nullable Duration timeout;
+    private final @Nullable ProgressIndicator indicator;
+    private final ExecTelemetry.Recorder recorder;
+    private Process process;
+    private volatile Integer exitCode;
+
+    private ExecAsyncExecution(boolean checkExitCode, @Nullable Duration timeout, @Nullable ProgressIndicator indicator,
+                               ExecTelemetry.Recorder recorder) {
+        this.checkExitCode = checkExitCode;
+        this.timeout = timeout;
+        this.deadline = timeout == null ? 0 : System.nanoTime() + timeout.toNanos();
+        this.indicator = indicator;
+        this.recorder = recorder;
+    }
+
+    static CompletableFuture<ExecHelper.ExecResult> start(String executable, boolean checkExitCode, File workingDirectory,
+                                                          Map<String, String> envs, @Nullable Duration timeout,
+                                                          @Nullable ProgressIndicator indicator, String... arguments) {
+        ExecTelemetry.Recorder recorder = ExecTelemetry.getInstance().start(ExecTelemetry.Mode.RESULT, executable);
+        ExecAsyncExecution execution = new ExecAsyncExecution(checkExitCode, timeout, indicator, recorder);
+        List<String> command = new ArrayList<>(arguments.length + 1);
+        command.add(executable);
+        command.addAll(List.of(arguments));
+        ProcessBuilder builder = new ProcessBuilder(command).directory(workingDirectory);
+        builder.environment().putAll(envs);
+        try {
+            execution.process = builder.start();
+        } catch (IOException e) {
+            recorder.finish(null, e);
+            execution.result.completeExceptionally(e);
+            return execution.result;
+        }
+        recorder.spawned();
+        execution.result.whenComplete((result, error) -> {
+            // null if the process is killed before it exited
+            Integer exitCode = result != null ? Integer.valueOf(result.getExitCode()) : execution.exitCode;
+            if (error != null) {
+                killTree(execution.process);
+            }
+            recorder.finish(exitCode, error);
+        });
+        // dedicated threads, the executor may be a pool that the watchdog must not be starved of
+        ExecExecutors.getThreadFactory().newThread(execution::waitFor).start();
+        if (timeout != null
+                || indicator != null) {
+            execution.scheduleWatchdog();
+        }
+        return execution.result;
+    }
+
+    private void waitFor() {
+        Future<byte[]> out = read(recorder.count(process.getInputStream()));
+        Future<byte[]> err = read(recorder.count(process.getErrorStream()));
+        try {
+            int exitCode = process.waitFor();
+            this.exitCode = exitCode;
+            Charset charset = Charset.defaultCharset();
+            String stdErr = new String(err.get(), charset);
+            if (checkExitCode
+                    && exitCode != 0) {
+                result.completeExceptionally(
+                        new IOException("Process exited with an error: " + exitCode + " " + stdErr));
+            } else {
+                result.complete(new ExecHelper.ExecResult(new String(out.get(), charset), stdErr, exitCode));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(new IOException(e));
+        } catch (ExecutionException e) {
+            result.completeExceptionally(e.getCause());
+        }
+    }
+
+    private static Future<byte[]> read(InputStream stream) {
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        ExecExecutors.getThreadFactory().newThread(() -> {
+            try (stream) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                stream.transferTo(bytes);
+                future.complete(bytes.toByteArray());
+            } catch (IOException e) {
+                future.completeExceptionally(e);
+            }
+        }).start();
+        return future;
+    }
+
+    private void scheduleWatchdog() {
+        long delay = WATCHDOG_INTERVAL_MILLIS;
+        if (timeout != null) {
+            delay = Math.min(delay, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+        }
+        ExecExecutors.schedule(this::watch, Math.max(0, delay), TimeUnit.MILLISECONDS);
+    }
+
+    private void watch() {
+        if (result.isDone()) {
+            return;
+        }
+        if (indicator != null
+                && indicator.isCanceled()) {
+            result.cancel(false);
+        } else if (timeout != null
+                && deadline - System.nanoTime() <= 0) {
+            result.completeExceptionally(new IOException("Process did not exit within " + timeout.toMillis() + " ms"));
+        } else {
+            scheduleWatchdog();
+        }
+    }
+
+    /**
+     * Kills the given process and all its descendants. The descendants are collected before the process is killed,
+     * they could not be found anymore once they are orphaned.
+     */
+    static void killTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+}
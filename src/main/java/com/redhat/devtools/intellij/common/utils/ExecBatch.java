@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Executes a list of commands with a bounded number of commands running at the same time, ex. the same command for
+ * several namespaces or contexts. Each command succeeds or fails on its own, the results are handed over to a
+ * consumer on the calling thread in the order they complete or in the order the commands were given.
+ * <pre>
+ *     ExecBatch.Summary summary = new ExecBatch(4).execute(commands, ExecBatch.Order.COMPLETION, result -> {
+ *         if (result.isSuccess()) {
+ *             merge(result.getOutput());
+ *         }
+ *     });
+ * </pre>
+ */
+public class ExecBatch {
+
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    public enum Order {
+        /** results are handed over as soon as their command completes */
+        COMPLETION,
+        /** results are handed over in the order of the commands, later results wait for earlier ones */
+        SUBMISSION
+    }
+
+    @FunctionalInterface
+    interface Runner {
+        String run(ExecCommand command) throws IOException;
+    }
+
+    private final int parallelism;
+    private final Runner runner;
+
+    public ExecBatch() {
+        this(DEFAULT_PARALLELISM);
+    }
+
+    public ExecBatch(int parallelism) {
+        this(parallelism, ExecCommand::execute);
+    }
+
+    ExecBatch(int parallelism, Runner runner) {
+        this.parallelism = Math.max(1, parallelism);
+        this.runner = runner;
+    }
+
+    /**
+     * Executes the given commands and returns once all of them completed.
+     *
+     * @param commands the commands to execute
+     * @return the summary with the results in the order of the commands
+     * @throws IOException if the calling thread is interrupted while waiting
+     */
+    public Summary execute(List<ExecCommand> commands) throws IOException {
+        return execute(commands, Order.SUBMISSION, result -> {});
+    }
+
+    /**
+     * Executes the given commands and hands the results over to the given consumer on the calling thread while the
+     * remaining commands are running. If the consumer throws, commands that did not start yet are not executed.
+     *
+     * @param commands the commands to execute
+     * @param order the order in which the results are handed over
+     * @param consumer the consumer for the results
+     * @return the summary with the results in the order of the commands
+     * @throws IOException if the calling thread is interrupted while waiting
+     */
+    public Summary execute(List<ExecCommand> commands, Order order, Consumer<Result> consumer) throws IOException {
+        long start = System.nanoTime();
+        int size = commands.size();
+        BlockingQueue<Result> completed = new LinkedBlockingQueue<>();
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        Runnable worker = () -> {
+            int index;
+            while (!stopped.get()
+                    && (index = next.getAndIncrement()) < size) {
+                completed.add(run(index, commands.get(index)));
+            }
+        };
+        // dedicated threads, commands block for their whole duration
+        for (int i = 0; i < Math.min(parallelism, size); i++) {
+            ExecExecutors.getThreadFactory().newThread(worker).start();
+        }
+        Result[] results = new Result[size];
+        int handedOver = 0;
+        try {
+            for (int i = 0; i < size; i++) {
+                Result result = completed.take();
+                results[result.getIndex()] = result;
+                if (order == Order.COMPLETION) {
+                    consumer.accept(result);
+                } else {
+                    while (handedOver < size
+                            && results[handedOver] != null) {
+                        consumer.accept(results[handedOver++]);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } finally {
+            stopped.set(true);
+        }
+        List<Result> list = new ArrayList<>(size);
+        Collections.addAll(list, results);
+        return new Summary(list, System.nanoTime() - start);
+    }
+
+    private Result run(int index, ExecCommand command) {
+        long start = System.nanoTime();
+        try {
+            String output = runner.run(command);
+            return new Result(index, command, output, null, System.nanoTime() - start);
+        } catch (IOException | RuntimeException e) {
+            return new Result(index, command, null, e, System.nanoTime() - start);
+        } catch (Error e) {
+            // a worker that dies without a result would block the batch forever
+            return new Result(index, command, null, new ExecutionException(e), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * The outcome of a single command of a batch.
+     */
+    public static class Result {
+        private final int index;
+        private final ExecCommand command;
+        private final String output;
+        private final Exception error;
+        private final long duration;
+
+        private Result(int index, ExecCommand command, String output, Exception error, long duration) {
+            this.index = index;
+            this.command = command;
+            this.output = output;
+            this.error = error;
+            this.duration = duration;
+        }
+
+        /**
+         * @return the position of the command in the list of commands of the batch
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public ExecCommand getCommand() {
+            return command;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        /**
+         * @return the output of the command, {@code null} if it failed
+         */
+        public String getOutput() {
+            return output;
+        }
+
+        /**
+         * @return the error of the command, {@code null} if it succeeded
+         */
+        public Exception getError() {
+            return error;
+        }
+
+        /**
+         * @return the duration of the command in milliseconds
+         */
+        public long getDuration() {
+            return TimeUnit.NANOSECONDS.toMillis(duration);
+        }
+
+        @Override
+        public String toString() {
+            return command + (isSuccess() ? " succeeded" : " failed: " + error.getMessage()) + " in " + getDuration() + " ms";
+        }
+    }
+
+    /**
+     * The results and the aggregate timing of a batch.
+     */
+    public static class Summary {
+        private final List<Result> results;
+        private final long wallTime;
+
+        private Summary(List<Result> results, long wallTime) {
+            this.results = Collections.unmodifiableList(results);
+            this.wallTime = wallTime;
+        }
+
+        /**
+         * @return the results in the order of the commands
+         */
+        public List<Result> getResults() {
+            return results;
+        }
+
+        public int getSucceeded() {
+            return (int) results.stream().filter(Result::isSuccess).count();
+        }
+
+        public int getFailed() {
+            return results.size() - getSucceeded();
+        }
+
+        public boolean isSuccess() {
+            return getFailed() == 0;
+        }
+
+        /**
+         * @return the time from the start of the first command to the end of the last one, in milliseconds
+         */
+        public long getWallTime() {
+            return TimeUnit.NANOSECONDS.toMillis(wallTime);
+        }
+
+        /**
+         * @return the sum of the durations of all commands, in milliseconds
+         */
+        public long getTotalTime() {
+            return TimeUnit.NANOSECONDS.toMillis(results.stream().mapToLong(result -> result.duration).sum());
+        }
+
+        /**
+         * @return the duration of the slowest command, in milliseconds
+         */
+        public long getMaxTime() {
+            return TimeUnit.NANOSECONDS.toMillis(results.stream().mapToLong(result -> result.duration).max().orElse(0));
+        }
+
+        @Override
+        public String toString() {
+            return getSucceeded() + " succeeded, " + getFailed() + " failed in " + getWallTime() + " ms"
+                    + " (total " + getTotalTime() + " ms, max " + getMaxTime() + " ms)";
+        }
+    }
+}
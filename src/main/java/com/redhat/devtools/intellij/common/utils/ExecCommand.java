@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.redhat.devtools.intellij.common.CommonConstants.HOME_FOLDER;
+
+/**
+ * An immutable description of a command to execute with {@link ExecHelper}. Two commands are equal if they have the
+ * same executable, arguments, working directory and environment variables.
+ */
+public class ExecCommand {
+    private final String executable;
+    private final List<String> arguments;
+    private final File workingDirectory;
+    private final Map<String, String> envs;
+    private final boolean checkExitCode;
+
+    public ExecCommand(String executable, boolean checkExitCode, File workingDirectory, Map<String, String> envs,
+                       String... arguments) {
+        this.executable = executable;
+        this.checkExitCode = checkExitCode;
+        this.workingDirectory = workingDirectory;
+        this.envs = Collections.unmodifiableMap(new HashMap<>(envs));
+        this.arguments = List.of(arguments);
+    }
+
+    public ExecCommand(String executable, Map<String, String> envs, String... arguments) {
+        this(executable, true, new File(HOME_FOLDER), envs, arguments);
+    }
+
+    public ExecCommand(String executable, String... arguments) {
+        this(executable, Collections.emptyMap(), arguments);
+    }
+
+    public String getExecutable() {
+        return executable;
+    }
+
+    public List<String> getArguments() {
+        return arguments;
+    }
+
+    public String[] getArgumentsArray() {
+        return arguments.toArray(new String[0]);
+    }
+
+    public File getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    public Map<String, String> getEnvs() {
+        return envs;
+    }
+
+    public boolean isCheckExitCode() {
+        return checkExitCode;
+    }
+
+    /**
+     * @see ExecHelper#execute(String, boolean, File, Map, String...)
+     */
+    public String execute() throws IOException {
+        return ExecHelper.execute(executable, checkExitCode, workingDirectory, envs, getArgumentsArray());
+    }
+
+    /**
+     * @see ExecHelper#executeWithResult(String, boolean, File, Map, String...)
+     */
+    public ExecHelper.ExecResult executeWithResult() throws IOException {
+        return ExecHelper.executeWithResult(executable, checkExitCode, workingDirectory, envs, getArgumentsArray());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ExecCommand)) {
+            return false;
+        }
+        ExecCommand other = (ExecCommand) o;
+        return checkExitCode == other.checkExitCode
+                && executable.equals(other.executable)
+                && arguments.equals(other.arguments)
+                && Objects.equals(workingDirectory, other.workingDirectory)
+                && envs.equals(other.envs);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(executable, arguments, workingDirectory, envs, checkExitCode);
+    }
+
+    @Override
+    public String toString() {
+        return executable + " " + String.join(" ", arguments);
+    }
+}
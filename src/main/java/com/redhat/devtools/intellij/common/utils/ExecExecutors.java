@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.Disposer;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The threads that {@link ExecHelper} blocks on while waiting for processes and pumping their output.
+ * On runtimes that support virtual threads (java 21+) blocking tasks run on virtual threads, on older runtimes
+ * they run on a pool of platform threads. The backend can be chosen with the system property
+ * {@value #BACKEND_PROPERTY} ({@code virtual} or {@code platform}) or with {@link #setBackend(Backend)}.
+ * The executors are created lazily and shut down when the application is disposed.
+ */
+public class ExecExecutors {
+
+    private static final Logger LOG = Logger.getInstance(ExecExecutors.class);
+
+    public static final String BACKEND_PROPERTY = "com.redhat.devtools.intellij.common.exec.threads";
+
+    private static final String THREAD_NAME_PREFIX = "intellij-common-exec-";
+
+    public enum Backend {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    private static Backend backend;
+    private static ThreadFactory threadFactory;
+    private static ExecutorService executor;
+    private static ScheduledExecutorService scheduler;
+    private static boolean disposeRegistered = false;
+
+    private ExecExecutors() {
+    }
+
+    /**
+     * Sets the backend to use. Executors of a previous backend are shut down, running tasks are not interrupted.
+     * Falls back to {@link Backend#PLATFORM} if virtual threads are not supported by the runtime.
+     *
+     * @param backend the backend to use
+     */
+    public static synchronized void setBackend(Backend backend) {
+        shutdown();
+        ExecExecutors.backend = backend == Backend.VIRTUAL && !isVirtualThreadSupported() ? Backend.PLATFORM : backend;
+    }
+
+    public static synchronized Backend getBackend() {
+        if (backend == null) {
+            backend = getDefaultBackend();
+        }
+        return backend;
+    }
+
+    /**
+     * @return the executor for tasks that block on processes or streams
+     */
+    public static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            init();
+        }
+        return executor;
+    }
+
+    /**
+     * @return the thread factory for threads that block on processes or streams
+     */
+    public static synchronized ThreadFactory getThreadFactory() {
+        if (threadFactory == null) {
+            init();
+        }
+        return threadFactory;
+    }
+
+    /**
+     * Runs the given task on the {@link #getExecutor() executor} once the given delay elapsed.
+     *
+     * @param runnable the task to run
+     * @param delay the delay
+     * @param unit the unit of the delay
+     * @return the future of the scheduling, cancelling it before the delay elapsed prevents the task from running
+     */
+    public static ScheduledFuture<?> schedule(Runnable runnable, long delay, TimeUnit unit) {
+        ScheduledExecutorService scheduler;
+        ExecutorService executor;
+        synchronized (ExecExecutors.class) {
+            if (ExecExecutors.scheduler == null) {
+                init();
+            }
+            scheduler = ExecExecutors.scheduler;
+            executor = ExecExecutors.executor;
+        }
+        if (scheduler == executor) {
+            return scheduler.schedule(runnable, delay, unit);
+        }
+        // the scheduler thread only dispatches, tasks run on the executor
+        return scheduler.schedule(() -> executor.execute(runnable), delay, unit);
+    }
+
+    /**
+     * Shuts the executors down. Tasks that are running are not interrupted, new executors are created on next use.
+     */
+    public static synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        if (executor != null
+                && executor != scheduler) {
+            executor.shutdown();
+        }
+        scheduler = null;
+        executor = null;
+        threadFactory = null;
+    }
+
+    private static void init() {
+        if (getBackend() == Backend.VIRTUAL) {
+            try {
+                threadFactory = createVirtualThreadFactory();
+                executor = (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                        .invoke(null, threadFactory);
+                scheduler = Executors.newSingleThreadScheduledExecutor(new PlatformThreadFactory(THREAD_NAME_PREFIX + "scheduler-"));
+            } catch (ReflectiveOperationException e) {
+                LOG.warn("Could not create virtual threads, using platform threads instead.", e);
+                backend = Backend.PLATFORM;
+            }
+        }
+        if (backend == Backend.PLATFORM) {
+            threadFactory = new PlatformThreadFactory(THREAD_NAME_PREFIX);
+            scheduler = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors(), threadFactory);
+            executor = scheduler;
+        }
+        registerDispose();
+    }
+
+    private static void registerDispose() {
+        if (disposeRegistered) {
+            return;
+        }
+        Application application = ApplicationManager.getApplication();
+        if (application != null) {
+            shutdownWith(application);
+            disposeRegistered = true;
+        }
+    }
+
+    /**
+     * Shuts the executors down once the given parent is disposed.
+     *
+     * @param parent the parent to shut down with
+     */
+    static void shutdownWith(Disposable parent) {
+        Disposer.register(parent, ExecExecutors::shutdown);
+    }
+
+    private static Backend getDefaultBackend() {
+        String property = System.getProperty(BACKEND_PROPERTY);
+        if (Backend.PLATFORM.name().equalsIgnoreCase(property)
+                || !isVirtualThreadSupported()) {
+            return Backend.PLATFORM;
+        }
+        return Backend.VIRTUAL;
+    }
+
+    static boolean isVirtualThreadSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static ThreadFactory createVirtualThreadFactory() throws ReflectiveOperationException {
+        Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+        Method name = builderClass.getMethod("name", String.class, long.class);
+        builder = name.invoke(builder, THREAD_NAME_PREFIX, 0L);
+        return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    }
+
+    private static class PlatformThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private PlatformThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.execution.filters.Filter;
+import com.intellij.execution.filters.HyperlinkInfo;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Runs filters that are too slow for the rendering path of the terminal, ex. resolving resource names or file paths,
+ * on a pooled thread. The filters are applied to the completed lines of an {@link ExecScrollback} in batches of
+ * {@value #BATCH_SIZE} lines, the links of each batch are handed over as soon as it is filtered. Clearing cancels the
+ * batches that are running, their links are marked as outdated.
+ * Filters may access the PSI or the virtual file system, each batch thus runs in a non-blocking read action, like
+ * the AsyncFilterRunner of the IDE does. It is restarted if a write action comes in and expires with the console.
+ */
+class ExecHeavyFilters {
+
+    private static final Logger LOG = Logger.getInstance(ExecHeavyFilters.class);
+
+    static final int BATCH_SIZE = 500;
+
+    /**
+     * Receives the links of a batch of lines.
+     */
+    @FunctionalInterface
+    interface Applier {
+        /**
+         * @param links the links that were found
+         * @param generation the generation of the links, see {@link #isCurrent(long)}
+         */
+        void apply(List<Link> links, long generation);
+    }
+
+    /**
+     * Runs a batch of filters.
+     */
+    @FunctionalInterface
+    interface BatchRunner {
+        /**
+         * @param batch the batch to run
+         * @return the links of the batch or {@code null} if it expired
+         */
+        List<Link> run(Callable<List<Link>> batch);
+    }
+
+    /**
+     * A part of a line that a filter turned into a link.
+     */
+    static class Link {
+        private final int line;
+        private final int start;
+        private final String text;
+        private final HyperlinkInfo info;
+
+        Link(int line, int start, String text, HyperlinkInfo info) {
+            this.line = line;
+            this.start = start;
+            this.text = text;
+            this.info = info;
+        }
+
+        /**
+         * @return the line of the link, 0 is the first line of the scrollback
+         */
+        int getLine() {
+            return line;
+        }
+
+        /**
+         * @return the column at which the link starts
+         */
+        int getStart() {
+            return start;
+        }
+
+        String getText() {
+            return text;
+        }
+
+        HyperlinkInfo getInfo() {
+            return info;
+        }
+    }
+
+    private final ExecScrollback scrollback;
+    private final Applier applier;
+    private final BatchRunner runner;
+    private final List<Filter> filters = new CopyOnWriteArrayList<>();
+    private boolean enabled = false;
+    private boolean running = false;
+    private int filteredLines = 0;
+    private long generation = 0;
+
+    ExecHeavyFilters(ExecScrollback scrollback, Applier applier, Disposable parent) {
+        this(scrollback, applier, readAction(parent));
+    }
+
+    ExecHeavyFilters(ExecScrollback scrollback, Applier applier, BatchRunner runner) {
+        this.scrollback = scrollback;
+        this.applier = applier;
+        this.runner = runner;
+    }
+
+    /**
+     * @param parent the disposable that the read actions expire with
+     * @return a runner that runs each batch in a non-blocking read action
+     */
+    private static BatchRunner readAction(Disposable parent) {
+        return batch -> {
+            try {
+                return ReadAction.nonBlocking(batch)
+                        .expireWith(parent)
+                        .executeSynchronously();
+            } catch (ProcessCanceledException e) {
+                return null;
+            }
+        };
+    }
+
+    void addFilter(Filter filter) {
+        filters.add(filter);
+        schedule();
+    }
+
+    /**
+     * Starts filtering, the lines that were completed before are filtered too.
+     */
+    void enable() {
+        synchronized (this) {
+            enabled = true;
+        }
+        schedule();
+    }
+
+    /**
+     * Filters the lines that were completed since the last batch, unless a batch is running already.
+     */
+    void schedule() {
+        synchronized (this) {
+            if (!enabled
+                    || running
+                    || filters.isEmpty()
+                    || filteredLines >= getCompletedLines()) {
+                return;
+            }
+            running = true;
+        }
+        ExecExecutors.getExecutor().execute(this::run);
+    }
+
+    /**
+     * Cancels the running batch and starts over at the first line.
+     */
+    synchronized void cancel() {
+        generation++;
+        filteredLines = 0;
+    }
+
+    /**
+     * Stops filtering, the running batch is cancelled.
+     */
+    synchronized void dispose() {
+        enabled = false;
+        cancel();
+    }
+
+    synchronized boolean isCurrent(long generation) {
+        return this.generation == generation;
+    }
+
+    private void run() {
+        while (true) {
+            int from;
+            int to;
+            long batchGeneration;
+            synchronized (this) {
+                from = filteredLines;
+                to = Math.min(getCompletedLines(), from + BATCH_SIZE);
+                batchGeneration = generation;
+                if (!enabled
+                        || from >= to) {
+                    running = false;
+                    return;
+                }
+            }
+            List<Link> links = runner.run(() -> filter(from, to, batchGeneration));
+            synchronized (this) {
+                if (links == null) {
+                    // expired with the console
+                    running = false;
+                    return;
+                }
+                if (batchGeneration != generation) {
+                    continue;
+                }
+                filteredLines = to;
+            }
+            if (!links.isEmpty()) {
+                applier.apply(links, batchGeneration);
+            }
+        }
+    }
+
+    private List<Link> filter(int from, int to, long batchGeneration) {
+        List<Link> links = new ArrayList<>();
+        try {
+            // the lines before the first one that is kept were dropped
+            for (int line = Math.max(from, scrollback.getFirstLine()); line < to && isCurrent(batchGeneration); line++) {
+                String text = stripLineSeparator(scrollback.getLine(line));
+                long lineStart = scrollback.getLineStartOffset(line);
+                int entireLength = (int) Math.min(Integer.MAX_VALUE, lineStart + text.length());
+                for (Filter filter : filters) {
+                    addLinks(filter, line, text, entireLength, links);
+                }
+            }
+        } catch (IOException | IndexOutOfBoundsException e) {
+            // the scrollback was cleared or could not be read, the batch is outdated
+            LOG.debug("Could not filter lines " + from + " to " + to + ".", e);
+        }
+        return links;
+    }
+
+    private static void addLinks(Filter filter, int line, String text, int entireLength, List<Link> links) {
+        Filter.Result result;
+        try {
+            result = filter.applyFilter(text, entireLength);
+        } catch (ProcessCanceledException e) {
+            // the read action is restarted or expired, the batch must stop
+            throw e;
+        } catch (RuntimeException e) {
+            LOG.debug("Filter " + filter + " failed on line " + line + ".", e);
+            return;
+        }
+        if (result == null) {
+            return;
+        }
+        int lineStart = entireLength - text.length();
+        for (Filter.ResultItem item : result.getResultItems()) {
+            if (item.getHyperlinkInfo() == null) {
+                continue;
+            }
+            int start = item.getHighlightStartOffset() - lineStart;
+            int end = item.getHighlightEndOffset() - lineStart;
+            if (start >= 0
+                    && start < end
+                    && end <= text.length()) {
+                links.add(new Link(line, start, text.substring(start, end), item.getHyperlinkInfo()));
+            }
+        }
+    }
+
+    private int getCompletedLines() {
+        // the last line is not complete
+        return scrollback.getLineCount() - 1;
+    }
+
+    private static String stripLineSeparator(String line) {
+        int end = line.length();
+        if (end > 0 && line.charAt(end - 1) == '\n') {
+            end--;
+        }
+        if (end > 0 && line.charAt(end - 1) == '\r') {
+            end--;
+        }
+        return line.substring(0, end);
+    }
+}
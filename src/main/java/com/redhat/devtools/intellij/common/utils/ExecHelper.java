@@ -10,85 +10,142 @@
  ******************************************************************************/
 package com.redhat.devtools.intellij.common.utils;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.intellij.execution.executors.DefaultRunExecutor;
 import com.intellij.execution.process.NopProcessHandler;
+import com.intellij.execution.process.ProcessAdapter;
 import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessHandler;
 import com.intellij.execution.process.ProcessListener;
 import com.intellij.execution.process.ProcessOutputTypes;
 import com.intellij.execution.ui.ConsoleView;
 import com.intellij.execution.ui.RunContentManager;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.project.Project;
 import com.intellij.terminal.TerminalExecutionConsole;
 import com.pty4j.PtyProcess;
 import com.pty4j.PtyProcessBuilder;
 import com.redhat.devtools.intellij.common.CommonConstants;
+import com.redhat.devtools.intellij.common.model.GenericResource;
 import com.redhat.devtools.intellij.common.model.ProcessHandlerInput;
 import org.apache.commons.exec.CommandLine;
 import org.apache.commons.exec.DefaultExecuteResultHandler;
 import org.apache.commons.exec.DefaultExecutor;
+import org.apache.commons.exec.ExecuteException;
+import org.apache.commons.exec.ExecuteWatchdog;
 import org.apache.commons.exec.PumpStreamHandler;
+import org.apache.commons.exec.StreamPumper;
 import org.apache.commons.io.output.WriterOutputStream;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.JPanel;
 import java.awt.BorderLayout;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static com.redhat.devtools.intellij.common.CommonConstants.HOME_FOLDER;
 
 public class ExecHelper {
-  private static final ScheduledExecutorService SERVICE = Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors());
 
   private ExecHelper() {}
 
+  /**
+   * Runs the given task on the executor of {@link ExecExecutors} once the given delay elapsed.
+   *
+   * @param runnable the task to run
+   * @param delay the delay
+   * @param unit the unit of the delay
+   * @return the future of the scheduling
+   */
   public static ScheduledFuture<?> executeAfter(Runnable runnable, long delay, TimeUnit unit) {
-    return SERVICE.schedule(runnable, delay, unit);
+    return ExecExecutors.schedule(runnable, delay, unit);
   }
 
+  /**
+   * Runs the given task on the executor of {@link ExecExecutors}, virtual threads if the runtime supports them.
+   *
+   * @param runnable the task to run
+   */
   public static void submit(Runnable runnable) {
-    SERVICE.submit(runnable);
+    ExecExecutors.getExecutor().submit(runnable);
   }
 
-  private static class ListeningWriterOutputStream extends WriterOutputStream {
-    private final ProcessListener listener;
-    private final Charset charset;
-    private StringWriter writer;
-    private WriterOutputStream stream;
-
-    private ListeningWriterOutputStream(Writer writer, Charset charset, ProcessListener listener) {
-      super(writer, charset);
-      this.charset = charset;
-      this.listener = listener;
+  /**
+   * Creates a stream that writes the output to the given writer and notifies the given listener. The output is
+   * decoded once for both and the listener is notified with line-bounded chunks rather than for every pumped buffer.
+   * All the events of an execution share the same process handler.
+   */
+  private static OutputStream createListeningOutputStream(Writer writer, Charset charset, @Nullable ProcessListener listener) {
+    if (listener == null) {
+      return new WriterOutputStream(writer, charset);
     }
+    ProcessHandler handler = new NopProcessHandler();
+    return new ExecLineOutputStream(charset, ExecLineOutputStream.DEFAULT_MAX_CHUNK_SIZE, false, chunk -> {
+      writer.write(chunk);
+      listener.onTextAvailable(new ProcessEvent(handler, chunk), ProcessOutputTypes.STDOUT);
+    });
+  }
 
-    @Override
-    public void write(byte[] b, int off, int len) throws IOException {
-      super.write(b, off, len);
-      if (listener != null) {
-        String str = new String(b, off, len, charset);
-        listener.onTextAvailable(new ProcessEvent(new NopProcessHandler(), str), ProcessOutputTypes.STDOUT);
+  private static DefaultExecuteResultHandler createRecordingResultHandler(ExecTelemetry.Recorder recorder) {
+    return new DefaultExecuteResultHandler() {
+      @Override
+      public void onProcessComplete(int exitValue) {
+        recorder.finish(exitValue, null);
+        super.onProcessComplete(exitValue);
+      }
+
+      @Override
+      public void onProcessFailed(ExecuteException e) {
+        recorder.finish(e.getExitValue(), e);
+        super.onProcessFailed(e);
       }
+    };
+  }
+
+  private static Integer getExitValue(IOException e) {
+    return e instanceof ExecuteException ? ((ExecuteException) e).getExitValue() : null;
+  }
+
+  /**
+   * Creates an executor whose threads are created by {@link ExecExecutors#getThreadFactory()}.
+   *
+   * @param checkExitCode if an exit code other than 0 is a failure
+   * @return the executor
+   */
+  private static DefaultExecutor createExecutor(boolean checkExitCode) {
+    DefaultExecutor executor = DefaultExecutor.builder()
+            .setThreadFactory(ExecExecutors.getThreadFactory())
+            .get();
+    if (!checkExitCode) {
+      // no exit code is a failure
+      executor.setExitValues(null);
     }
+    return executor;
   }
 
   /**
@@ -106,19 +163,11 @@ public class ExecHelper {
    */
   public static String execute(String executable, boolean checkExitCode, File workingDirectory, Map<String,String> envs,
                                ProcessListener listener, String... arguments) throws IOException {
-    DefaultExecutor executor = new DefaultExecutor() {
-      @Override
-      public boolean isFailure(int exitValue) {
-        if (checkExitCode) {
-          return super.isFailure(exitValue);
-        } else {
-          return false;
-        }
-      }
-    };
+    DefaultExecutor executor = createExecutor(checkExitCode);
+    ExecTelemetry.Recorder recorder = ExecTelemetry.getInstance().start(ExecTelemetry.Mode.EXECUTE, executable);
     StringWriter writer = new StringWriter();
-    PumpStreamHandler handler = new PumpStreamHandler(new ListeningWriterOutputStream(writer, Charset.defaultCharset(),
-            listener));
+    OutputStream out = recorder.count(createListeningOutputStream(writer, Charset.defaultCharset(), listener));
+    PumpStreamHandler handler = new ExecPumpStreamHandler(out, out, recorder);
     executor.setStreamHandler(handler);
     executor.setWorkingDirectory(workingDirectory);
     CommandLine command = new CommandLine(executable).addArguments(arguments, false);
@@ -126,12 +175,13 @@ public class ExecHelper {
     env.putAll(envs);
     try {
       if (checkExitCode) {
-        executor.execute(command, env);
+        recorder.finish(executor.execute(command, env), null);
       } else {
-        executor.execute(command, env, new DefaultExecuteResultHandler());
+        executor.execute(command, env, createRecordingResultHandler(recorder));
       }
       return writer.toString();
     } catch (IOException e) {
+      recorder.finish(getExitValue(e), e);
       throw new IOException(e.getLocalizedMessage() + " " + writer.toString(), e);
     }
   }
@@ -234,21 +284,14 @@ public class ExecHelper {
 
   public static ExecResult executeWithResult(String executable, boolean checkExitCode, File workingDirectory, Map<String,String> envs,
                                              String... arguments) throws IOException {
-    DefaultExecutor executor = new DefaultExecutor() {
-      @Override
-      public boolean isFailure(int exitValue) {
-        if (checkExitCode) {
-          return super.isFailure(exitValue);
-        } else {
-          return false;
-        }
-      }
-    };
+    DefaultExecutor executor = createExecutor(checkExitCode);
+    ExecTelemetry.Recorder recorder = ExecTelemetry.getInstance().start(ExecTelemetry.Mode.RESULT, executable);
     StringWriter outWriter = new StringWriter();
     StringWriter errWriter = new StringWriter();
-    PumpStreamHandler handler = new PumpStreamHandler(
-            new WriterOutputStream(outWriter, Charset.defaultCharset()),
-            new WriterOutputStream(errWriter, Charset.defaultCharset()));
+    PumpStreamHandler handler = new ExecPumpStreamHandler(
+            recorder.count(new WriterOutputStream(outWriter, Charset.defaultCharset())),
+            recorder.count(new WriterOutputStream(errWriter, Charset.defaultCharset())),
+            recorder);
     executor.setStreamHandler(handler);
     executor.setWorkingDirectory(workingDirectory);
     CommandLine command = new CommandLine(executable).addArguments(arguments, false);
@@ -256,8 +299,10 @@ public class ExecHelper {
     env.putAll(envs);
     try {
       int exitCode = executor.execute(command, env);
+      recorder.finish(exitCode, null);
       return new ExecResult(outWriter.toString(), errWriter.toString(), exitCode);
     } catch (IOException e) {
+      recorder.finish(getExitValue(e), e);
       throw new IOException(e.getLocalizedMessage() + " " + errWriter.toString(), e);
     }
   }
@@ -266,6 +311,263 @@ public class ExecHelper {
     return executeWithResult(executable, true, new File(HOME_FOLDER), envs, arguments);
   }
 
+  /**
+   * Executes the given command without blocking the calling thread. The returned future completes with the result
+   * once the process exited, or exceptionally if the process could not be started, did not exit before the given
+   * timeout or if the exit code is checked and is not 0. Cancelling the future or the given progress indicator, or
+   * reaching the timeout, kills the process and all its descendants.
+   *
+   * @param executable the executable
+   * @param checkExitCode if exit code should be checked
+   * @param workingDirectory the working directory for the process
+   * @param envs the map for the environment variables
+   * @param timeout the maximum duration of the process, {@code null} for no limit
+   * @param indicator the progress indicator whose cancellation kills the process, may be {@code null}
+   * @param arguments the arguments
+   * @return the future result of the execution
+   */
+  public static CompletableFuture<ExecResult> executeAsync(String executable, boolean checkExitCode, File workingDirectory,
+                                                           Map<String, String> envs, @Nullable Duration timeout,
+                                                           @Nullable ProgressIndicator indicator, String... arguments) {
+    return ExecAsyncExecution.start(executable, checkExitCode, workingDirectory, envs, timeout, indicator, arguments);
+  }
+
+  public static CompletableFuture<ExecResult> executeAsync(String executable, Map<String, String> envs,
+                                                           @Nullable Duration timeout, String... arguments) {
+    return executeAsync(executable, true, new File(HOME_FOLDER), envs, timeout, null, arguments);
+  }
+
+  public static CompletableFuture<ExecResult> executeAsync(String executable, @Nullable Duration timeout,
+                                                           String... arguments) {
+    return executeAsync(executable, Collections.emptyMap(), timeout, arguments);
+  }
+
+  /**
+   * Executes the given command and keeps <b>out</b> and <b>err</b> in memory up to the given threshold each. Output
+   * that exceeds the threshold is moved to a temporary file and can be scanned through the memory-mapped accessors of
+   * the returned {@link SpillableExecResult} without being materialized on the heap. The result has to be closed to
+   * delete the temporary files.
+   *
+   * @param executable the executable
+   * @param checkExitCode if exit code should be checked
+   * @param workingDirectory the working directory for the process
+   * @param envs the map for the environment variables
+   * @param threshold the number of bytes of each stream that are kept in memory
+   * @param arguments the arguments
+   * @return the result of the execution
+   * @throws IOException if error during process execution
+   */
+  public static SpillableExecResult executeWithSpillableResult(String executable, boolean checkExitCode, File workingDirectory,
+                                                               Map<String, String> envs, long threshold,
+                                                               String... arguments) throws IOException {
+    DefaultExecutor executor = createExecutor(checkExitCode);
+    ExecTelemetry.Recorder recorder = ExecTelemetry.getInstance().start(ExecTelemetry.Mode.RESULT, executable);
+    ExecSpillableOutputStream out = new ExecSpillableOutputStream(threshold);
+    ExecSpillableOutputStream err = new ExecSpillableOutputStream(threshold);
+    executor.setStreamHandler(new ExecPumpStreamHandler(recorder.count(out), recorder.count(err), recorder));
+    executor.setWorkingDirectory(workingDirectory);
+    CommandLine command = new CommandLine(executable).addArguments(arguments, false);
+    Map<String, String> env = new HashMap<>(System.getenv());
+    env.putAll(envs);
+    try {
+      int exitCode = executor.execute(command, env);
+      recorder.finish(exitCode, null);
+      out.close();
+      err.close();
+      return new SpillableExecResult(out, err, Charset.defaultCharset(), exitCode);
+    } catch (IOException e) {
+      recorder.finish(getExitValue(e), e);
+      String message = e.getLocalizedMessage();
+      if (!err.isSpilled()) {
+        message += " " + err.toString(Charset.defaultCharset());
+      }
+      out.dispose();
+      err.dispose();
+      throw new IOException(message, e);
+    }
+  }
+
+  public static SpillableExecResult executeWithSpillableResult(String executable, Map<String, String> envs, long threshold,
+                                                               String... arguments) throws IOException {
+    return executeWithSpillableResult(executable, true, new File(HOME_FOLDER), envs, threshold, arguments);
+  }
+
+  /**
+   * Executes the given command and hands its output over to the given consumer while the process is running.
+   * <b>out</b> and <b>err</b> are delivered as line-bounded {@link ExecOutputChunk}s on the calling thread.
+   * At most a fixed number of chunks are buffered, the process is blocked when the consumer falls behind so that
+   * memory use stays constant whatever the size of the output.
+   *
+   * @param executable the executable
+   * @param checkExitCode if exit code should be checked
+   * @param workingDirectory the working directory for the process
+   * @param envs the map for the environment variables
+   * @param consumer the consumer for the output chunks
+   * @param arguments the arguments
+   * @return the exit code of the process
+   * @throws IOException if error during process execution or if the exit code is checked and is not 0
+   */
+  public static int executeStreaming(String executable, boolean checkExitCode, File workingDirectory, Map<String, String> envs,
+                                     Consumer<ExecOutputChunk> consumer, String... arguments) throws IOException {
+    // exit code is checked once all the output was consumed
+    DefaultExecutor executor = createExecutor(false);
+    ExecuteWatchdog watchdog = new ExecuteWatchdog(ExecuteWatchdog.INFINITE_TIMEOUT);
+    executor.setWatchdog(watchdog);
+    ExecTelemetry.Recorder recorder = ExecTelemetry.getInstance().start(ExecTelemetry.Mode.STREAMING, executable);
+    ExecOutputPipe pipe = new ExecOutputPipe(Charset.defaultCharset(), ExecOutputPipe.DEFAULT_CAPACITY);
+    executor.setStreamHandler(new ExecPumpStreamHandler(recorder.count(pipe.getStdOut()), recorder.count(pipe.getStdErr()),
+            recorder));
+    executor.setWorkingDirectory(workingDirectory);
+    CommandLine command = new CommandLine(executable).addArguments(arguments, false);
+    Map<String, String> env = new HashMap<>(System.getenv());
+    env.putAll(envs);
+    DefaultExecuteResultHandler resultHandler = new DefaultExecuteResultHandler();
+    RuntimeException[] consumerError = new RuntimeException[1];
+    try {
+      executor.execute(command, env, resultHandler);
+      pipe.drain(chunk -> {
+        if (consumerError[0] != null) {
+          return;
+        }
+        try {
+          consumer.accept(chunk);
+        } catch (RuntimeException e) {
+          consumerError[0] = e;
+          watchdog.destroyProcess();
+        }
+      }, resultHandler::hasResult);
+    } catch (IOException e) {
+      recorder.finish(null, e);
+      throw e;
+    } catch (InterruptedException e) {
+      watchdog.destroyProcess();
+      recorder.finish(null, e);
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+    if (consumerError[0] != null) {
+      recorder.finish(null, consumerError[0]);
+      throw consumerError[0];
+    }
+    if (resultHandler.getException() != null) {
+      recorder.finish(null, resultHandler.getException());
+      throw new IOException(resultHandler.getException().getLocalizedMessage(), resultHandler.getException());
+    }
+    int exitCode = resultHandler.getExitValue();
+    recorder.finish(exitCode, null);
+    if (checkExitCode && exitCode != 0) {
+      throw new IOException("Process returned exit code: " + exitCode);
+    }
+    return exitCode;
+  }
+
+  public static int executeStreaming(String executable, Map<String, String> envs, Consumer<ExecOutputChunk> consumer,
+                                     String... arguments) throws IOException {
+    return executeStreaming(executable, true, new File(HOME_FOLDER), envs, consumer, arguments);
+  }
+
+  public static int executeStreaming(String executable, Consumer<ExecOutputChunk> consumer, String... arguments) throws IOException {
+    return executeStreaming(executable, Collections.emptyMap(), consumer, arguments);
+  }
+
+  /**
+   * Executes the given command and parses its json or yaml output while the process is running, ex.
+   * {@code oc get pods -o json}. The items are handed over to the given consumer on the calling thread as soon as
+   * they are parsed: the elements of the {@code items} array of a list, the elements of a top level array or each
+   * document otherwise. The output is never held as a whole. <b>err</b> is read separately and is part of the
+   * exception if the exit code is checked and is not 0.
+   *
+   * @param executable the executable
+   * @param checkExitCode if exit code should be checked
+   * @param workingDirectory the working directory for the process
+   * @param envs the map for the environment variables
+   * @param consumer the consumer for the parsed items
+   * @param arguments the arguments
+   * @return the number of items
+   * @throws IOException if error during process execution, if the output could not be parsed or if the exit code is
+   * checked and is not 0
+   */
+  public static int executeAndParse(String executable, boolean checkExitCode, File workingDirectory,
+                                    Map<String, String> envs, Consumer<JsonNode> consumer,
+                                    String... arguments) throws IOException {
+    return executeAndParseItems(executable, checkExitCode, workingDirectory, envs, consumer::accept, arguments);
+  }
+
+  public static int executeAndParse(String executable, Map<String, String> envs, Consumer<JsonNode> consumer,
+                                    String... arguments) throws IOException {
+    return executeAndParse(executable, true, new File(HOME_FOLDER), envs, consumer, arguments);
+  }
+
+  /**
+   * Executes the given command and hands the resources that it outputs over to the given consumer while the process
+   * is running, see {@link #executeAndParse(String, boolean, File, Map, Consumer, String...)}.
+   *
+   * @param executable the executable
+   * @param checkExitCode if exit code should be checked
+   * @param workingDirectory the working directory for the process
+   * @param envs the map for the environment variables
+   * @param consumer the consumer for the parsed resources
+   * @param arguments the arguments
+   * @return the number of resources
+   * @throws IOException if error during process execution, if the output could not be parsed to resources or if the
+   * exit code is checked and is not 0
+   */
+  public static int executeAndParseResources(String executable, boolean checkExitCode, File workingDirectory,
+                                             Map<String, String> envs, Consumer<GenericResource> consumer,
+                                             String... arguments) throws IOException {
+    return executeAndParseItems(executable, checkExitCode, workingDirectory, envs,
+            item -> consumer.accept(ExecStructuredOutput.convert(item, GenericResource.class)), arguments);
+  }
+
+  public static int executeAndParseResources(String executable, Map<String, String> envs,
+                                             Consumer<GenericResource> consumer, String... arguments) throws IOException {
+    return executeAndParseResources(executable, true, new File(HOME_FOLDER), envs, consumer, arguments);
+  }
+
+  private static int executeAndParseItems(String executable, boolean checkExitCode, File workingDirectory,
+                                          Map<String, String> envs, ExecStructuredOutput.Sink sink,
+                                          String... arguments) throws IOException {
+    ExecTelemetry.Recorder recorder = ExecTelemetry.getInstance().start(ExecTelemetry.Mode.STREAMING, executable);
+    List<String> command = new ArrayList<>(arguments.length + 1);
+    command.add(executable);
+    command.addAll(Arrays.asList(arguments));
+    ProcessBuilder builder = new ProcessBuilder(command).directory(workingDirectory);
+    builder.environment().putAll(envs);
+    Process process;
+    try {
+      process = builder.start();
+    } catch (IOException e) {
+      recorder.finish(null, e);
+      throw e;
+    }
+    recorder.spawned();
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    Thread errPump = ExecExecutors.getThreadFactory().newThread(new StreamPumper(recorder.count(process.getErrorStream()), err));
+    errPump.start();
+    try {
+      int count;
+      try (InputStream out = recorder.count(process.getInputStream())) {
+        count = ExecStructuredOutput.parse(out, sink);
+      }
+      int exitCode = process.waitFor();
+      errPump.join();
+      recorder.finish(exitCode, null);
+      if (checkExitCode && exitCode != 0) {
+        throw new IOException("Process exited with an error: " + exitCode + " " + err.toString(Charset.defaultCharset()));
+      }
+      return count;
+    } catch (IOException | RuntimeException e) {
+      ExecAsyncExecution.killTree(process);
+      recorder.finish(null, e);
+      throw e;
+    } catch (InterruptedException e) {
+      ExecAsyncExecution.killTree(process);
+      recorder.finish(null, e);
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+  }
+
   public static class ExecResult {
     private final String stdOut;
     private final @Nullable String stdErr;
@@ -290,19 +592,104 @@ public class ExecHelper {
     }
   }
 
+  /**
+   * An {@link ExecResult} whose output may have been moved to temporary files, see
+   * {@link #executeWithSpillableResult(String, boolean, File, Map, long, String...)}.
+   * {@link #getStdOut()} and {@link #getStdErr()} materialize the whole output, large outputs should rather be read
+   * with {@link #getStdOutChars()} or {@link #getStdOutStream()}. Closing the result deletes the temporary files.
+   */
+  public static class SpillableExecResult extends ExecResult implements Closeable {
+    private final ExecSpillableOutputStream stdOut;
+    private final ExecSpillableOutputStream stdErr;
+    private final Charset charset;
+
+    private SpillableExecResult(ExecSpillableOutputStream stdOut, ExecSpillableOutputStream stdErr, Charset charset,
+                                int exitCode) {
+      super(null, null, exitCode);
+      this.stdOut = stdOut;
+      this.stdErr = stdErr;
+      this.charset = charset;
+    }
+
+    @Override
+    public String getStdOut() {
+      return toString(stdOut);
+    }
+
+    @Override
+    public String getStdErr() {
+      return toString(stdErr);
+    }
+
+    private String toString(ExecSpillableOutputStream stream) {
+      try {
+        return stream.toString(charset);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    public CharSequence getStdOutChars() throws IOException {
+      return stdOut.getCharSequence(charset);
+    }
+
+    public CharSequence getStdErrChars() throws IOException {
+      return stdErr.getCharSequence(charset);
+    }
+
+    public InputStream getStdOutStream() throws IOException {
+      return stdOut.getInputStream();
+    }
+
+    public InputStream getStdErrStream() throws IOException {
+      return stdErr.getInputStream();
+    }
+
+    public long getStdOutSize() {
+      return stdOut.getSize();
+    }
+
+    public long getStdErrSize() {
+      return stdErr.getSize();
+    }
+
+    /**
+     * @return {@code true} if <b>out</b> or <b>err</b> were moved to temporary files
+     */
+    public boolean isSpilled() {
+      return stdOut.isSpilled() || stdErr.isSpilled();
+    }
+
+    @Override
+    public void close() {
+      stdOut.dispose();
+      stdErr.dispose();
+    }
+  }
+
   private static void executeWithTerminalInternal(Project project, String title, File workingDirectory,
                                                   boolean waitForProcessExit, Map<String, String> envs,
                                                   ConsoleView terminalToReuse,
                                                   Function<ProcessHandlerInput, ExecProcessHandler> processHandlerFunction,
                                                   ProcessListener processListener, String... command) throws IOException {
+    ExecTelemetry.Recorder recorder = ExecTelemetry.getInstance().start(ExecTelemetry.Mode.TERMINAL, command[0]);
+    Function<ProcessHandlerInput, ExecProcessHandler> recordingProcessHandlerFunction = input -> {
+      ExecProcessHandler handler = processHandlerFunction != null ?
+              processHandlerFunction.apply(input)
+              : new ExecProcessHandler(input.getProcess(), input.getCommandLine(), input.getCharset());
+      handler.addProcessListener(recorder.newProcessListener());
+      return handler;
+    };
     try {
       PtyProcess p = createPtyProcess(workingDirectory, envs, command);
+      recorder.spawned();
       if (terminalToReuse != null) {
-        attachProcessToTerminal(terminalToReuse, p, waitForProcessExit, processHandlerFunction, processListener, command);
+        attachProcessToTerminal(terminalToReuse, p, waitForProcessExit, recordingProcessHandlerFunction, processListener, command);
       } else {
-        linkProcessToTerminal(p, project, title, waitForProcessExit, processHandlerFunction, processListener, command);
+        linkProcessToTerminal(p, project, title, waitForProcessExit, recordingProcessHandlerFunction, processListener, command);
       }
     } catch (IOException e) {
+      recorder.finish(null, e);
       throw e;
     }
   }
@@ -314,6 +701,10 @@ public class ExecHelper {
 
 
   private static PtyProcess createPtyProcess(File workingDirectory, Map<String, String> envs, String[] command) throws IOException {
+    PtyProcess pooled = ExecPtyPool.getInstance().take(workingDirectory, envs, command);
+    if (pooled != null) {
+      return pooled;
+    }
     PtyProcessBuilder builder = new PtyProcessBuilder(command);
     builder.setEnvironment(getEnvs(envs));
     builder.setDirectory(workingDirectory.getPath());
@@ -322,8 +713,10 @@ public class ExecHelper {
   }
 
   private static Map<String, String> getEnvs(Map<String, String> customEnvs) {
-    Map<String, String> envs = new HashMap<>();
-    envs.putAll(System.getenv());
+    if (customEnvs.isEmpty()) {
+      return System.getenv();
+    }
+    Map<String, String> envs = new HashMap<>(System.getenv());
     envs.putAll(customEnvs);
     return envs;
   }
@@ -410,17 +803,7 @@ public class ExecHelper {
   }
 
   private static String getTabTitle(Project project, String title) {
-    Pattern pattern = Pattern.compile(title + "\\(([0-9]+)\\)");
-    int max = RunContentManager.getInstance(project).getAllDescriptors()
-            .stream()
-            .mapToInt(run -> {
-              Matcher m = pattern.matcher(run.getDisplayName());
-              if (m.find()) {
-                return Integer.parseInt(m.group(1));
-              }
-              return -1;
-            }).max().orElse(0);
-    return title + "(" + (++max) + ")";
+    return ExecTerminalPool.getInstance(project).nextTabTitle(title);
   }
 
   public static void executeWithTerminal(Project project, String title, File workingDirectory,
@@ -438,6 +821,44 @@ public class ExecHelper {
     }
   }
 
+  /**
+   * Executes the given command in a terminal of the {@link ExecTerminalPool} of the given project. An idle terminal
+   * with the same title is reused, a new one is created if there is none. The terminal is idle again once the
+   * process terminated.
+   *
+   * @param project the project
+   * @param title the title of the terminal
+   * @param workingDirectory the working directory for the process
+   * @param waitForProcessToExit if the calling thread waits for the process to exit
+   * @param envs the map for the environment variables
+   * @param command the command
+   * @throws IOException if the process could not be started or if waiting and the exit code is not 0
+   */
+  public static void executeWithPooledTerminal(Project project, String title, File workingDirectory,
+                                               boolean waitForProcessToExit, Map<String, String> envs,
+                                               String... command) throws IOException {
+    ExecTerminalPool pool = ExecTerminalPool.getInstance(project);
+    CommonTerminalExecutionConsole console = pool.acquire(title);
+    ProcessListener releaseListener = new ProcessAdapter() {
+      @Override
+      public void processTerminated(@NotNull ProcessEvent event) {
+        pool.release(console);
+      }
+    };
+    try {
+      executeWithTerminal(project, title, workingDirectory, waitForProcessToExit, envs, console, null,
+              releaseListener, command);
+    } catch (IOException e) {
+      pool.release(console);
+      throw e;
+    }
+  }
+
+  public static void executeWithPooledTerminal(Project project, String title, Map<String, String> envs,
+                                               String... command) throws IOException {
+    executeWithPooledTerminal(project, title, new File(HOME_FOLDER), true, envs, command);
+  }
+
   public static void executeWithTerminal(Project project, String title, File workingDirectory, String... command) throws IOException {
     executeWithTerminal(project, title, workingDirectory, true, Collections.emptyMap(), null, null, null, command);
   }
@@ -476,33 +897,104 @@ public class ExecHelper {
     executeWithTerminal(project, title, new File(HOME_FOLDER), true, envs, terminalToReuse, processHandlerFunction, processListener, command);
   }
 
+  /**
+   * Executes the given command and hands the text that the process outputs to the given consumer in the UI thread.
+   * The consumer receives the whole output printed so far, it is updated at most
+   * {@value ExecUIPublisher#DEFAULT_MAX_UPDATES_PER_SECOND} times per second. Use
+   * {@link #executeWithIncrementalUI(Map, Runnable, Consumer, int, String...)} to receive the new output only.
+   *
+   * @param envs the map for the environment variables
+   * @param initRunnable the runnable to run in the UI thread before the output is read
+   * @param runnable the consumer for the whole output
+   * @param command the command
+   * @throws IOException if the process could not be started
+   */
   public static void executeWithUI(Map<String, String> envs, Runnable initRunnable, Consumer<String> runnable, String... command) throws IOException {
-    ProcessBuilder builder = (new ProcessBuilder(command)).directory(new File(CommonConstants.HOME_FOLDER)).redirectErrorStream(true);
-    builder.environment().putAll(envs);
-    Process p = builder.start();
-    linkProcessToUI(p, initRunnable, runnable);
+    StringBuilder sb = new StringBuilder();
+    executeWithIncrementalUI(envs, initRunnable, delta -> {
+      sb.append(delta);
+      runnable.accept(sb.toString());
+    }, ExecUIPublisher.DEFAULT_MAX_UPDATES_PER_SECOND, command);
   }
 
   public static void executeWithUI(Map<String, String> envs, Consumer<String> runnable, String... command) throws IOException {
     executeWithUI(envs, null, runnable, command);
   }
 
-  private static void linkProcessToUI(Process p, Runnable initRunnable, Consumer<String> runnable) {
-    ApplicationManager.getApplication().executeOnPooledThread(() -> {
+  /**
+   * Executes the given command and hands the text that is kept in the given buffer to the given consumer in the UI
+   * thread. Only the most recent output is kept, which suits long-running commands that follow a log ex.
+   * {@code oc logs -f}. The number of lines that were dropped can be queried from the buffer.
+   *
+   * @param envs the map for the environment variables
+   * @param initRunnable the runnable to run in the UI thread before the output is read
+   * @param buffer the buffer that keeps the most recent output
+   * @param runnable the consumer for the text that is kept
+   * @param command the command
+   * @throws IOException if the process could not be started
+   */
+  public static void executeWithUI(Map<String, String> envs, Runnable initRunnable, ExecRingBuffer buffer,
+                                   Consumer<String> runnable, String... command) throws IOException {
+    executeWithIncrementalUI(envs, initRunnable, delta -> {
+      buffer.append(delta);
+      runnable.accept(buffer.toString());
+    }, ExecUIPublisher.DEFAULT_MAX_UPDATES_PER_SECOND, command);
+  }
+
+  /**
+   * Executes the given command and hands the text that the process outputs to the given consumer in the UI thread.
+   * The output is batched off the UI thread, the consumer receives the text that was output since its previous
+   * invocation, at most {@code maxUpdatesPerSecond} times per second.
+   *
+   * @param envs the map for the environment variables
+   * @param initRunnable the runnable to run in the UI thread before the output is read
+   * @param onOutput the consumer for the new output
+   * @param maxUpdatesPerSecond the maximum number of times per second that the consumer is invoked
+   * @param command the command
+   * @throws IOException if the process could not be started
+   */
+  public static void executeWithIncrementalUI(Map<String, String> envs, Runnable initRunnable, Consumer<String> onOutput,
+                                              int maxUpdatesPerSecond, String... command) throws IOException {
+    ExecTelemetry.Recorder recorder = ExecTelemetry.getInstance().start(ExecTelemetry.Mode.UI, command[0]);
+    ProcessBuilder builder = (new ProcessBuilder(command)).directory(new File(CommonConstants.HOME_FOLDER)).redirectErrorStream(true);
+    builder.environment().putAll(envs);
+    Process p;
+    try {
+      p = builder.start();
+    } catch (IOException e) {
+      recorder.finish(null, e);
+      throw e;
+    }
+    recorder.spawned();
+    linkProcessToUI(p, initRunnable, new ExecUIPublisher(onOutput, maxUpdatesPerSecond), recorder);
+  }
+
+  public static void executeWithIncrementalUI(Map<String, String> envs, Consumer<String> onOutput, String... command) throws IOException {
+    executeWithIncrementalUI(envs, null, onOutput, ExecUIPublisher.DEFAULT_MAX_UPDATES_PER_SECOND, command);
+  }
+
+  private static void linkProcessToUI(Process p, Runnable initRunnable, ExecUIPublisher publisher,
+                                      ExecTelemetry.Recorder recorder) {
+    submit(() -> {
       if (initRunnable != null) {
         UIHelper.executeInUI(initRunnable);
       }
-      StringBuilder sb = new StringBuilder();
       String line;
 
       try {
         BufferedReader reader = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8));
         while ((line = reader.readLine()) != null) {
-          sb.append(line).append("\n");
-
-          UIHelper.executeInUI(() -> runnable.accept(sb.toString()));
+          recorder.read(line.length() + 1);
+          publisher.append(line + "\n");
         }
-      }catch(IOException e) {}
+        publisher.flush();
+        recorder.finish(p.waitFor(), null);
+      } catch(IOException e) {
+        recorder.finish(null, e);
+      } catch (InterruptedException e) {
+        recorder.finish(null, e);
+        Thread.currentThread().interrupt();
+      }
     });
   }
 }
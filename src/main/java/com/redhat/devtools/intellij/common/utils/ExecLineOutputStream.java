@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * An {@link OutputStream} that decodes the bytes written to it and hands the text over to a {@link Sink} in
+ * line-bounded chunks. A chunk is a complete line including its terminator, or a fragment of at most
+ * {@code maxChunkSize} characters if the line is longer than that. If lines are not split, a chunk holds all the
+ * complete lines of a write instead, so that chatty processes cause one chunk per write rather than one per line.
+ * {@link #flush()} hands over the pending incomplete line.
+ * The decoder and its buffers are reused for the whole lifetime of the stream, multi-byte sequences that are split
+ * across writes are kept until they are complete.
+ */
+class ExecLineOutputStream extends OutputStream {
+
+    static final int DEFAULT_MAX_CHUNK_SIZE = 8192;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    interface Sink {
+        void accept(String chunk) throws IOException;
+    }
+
+    private final CharsetDecoder decoder;
+    private final ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharBuffer decoded = CharBuffer.allocate(BUFFER_SIZE);
+    private final StringBuilder pending = new StringBuilder();
+    private final int maxChunkSize;
+    private final boolean splitLines;
+    private final Sink sink;
+    private boolean closed = false;
+
+    ExecLineOutputStream(Charset charset, Sink sink) {
+        this(charset, DEFAULT_MAX_CHUNK_SIZE, sink);
+    }
+
+    ExecLineOutputStream(Charset charset, int maxChunkSize, Sink sink) {
+        this(charset, maxChunkSize, true, sink);
+    }
+
+    ExecLineOutputStream(Charset charset, int maxChunkSize, boolean splitLines, Sink sink) {
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.maxChunkSize = Math.max(1, maxChunkSize);
+        this.splitLines = splitLines;
+        this.sink = sink;
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        ensureOpen();
+        input.put((byte) b);
+        decode(false);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int length = Math.min(len, input.remaining());
+            input.put(b, off, length);
+            off += length;
+            len -= length;
+            decode(false);
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (pending.length() > 0) {
+            emit();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        decode(true);
+        flush();
+        closed = true;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private void decode(boolean endOfInput) throws IOException {
+        input.flip();
+        CoderResult result;
+        do {
+            result = decoder.decode(input, decoded, endOfInput);
+            drainDecoded();
+        } while (result.isOverflow());
+        if (endOfInput) {
+            while (decoder.flush(decoded).isOverflow()) {
+                drainDecoded();
+            }
+            drainDecoded();
+            decoder.reset();
+        }
+        // keeps the bytes of an incomplete multi-byte sequence for the next write
+        input.compact();
+    }
+
+    private void drainDecoded() throws IOException {
+        if (splitLines) {
+            drainLines();
+        } else {
+            drainCoalesced();
+        }
+        decoded.clear();
+    }
+
+    private void drainLines() throws IOException {
+        char[] chars = decoded.array();
+        int end = decoded.position();
+        int start = 0;
+        for (int i = 0; i < end; i++) {
+            if (chars[i] == '\n'
+                    || pending.length() + (i + 1 - start) >= maxChunkSize) {
+                pending.append(chars, start, i + 1 - start);
+                start = i + 1;
+                emit();
+            }
+        }
+        pending.append(chars, start, end - start);
+    }
+
+    private void drainCoalesced() throws IOException {
+        char[] chars = decoded.array();
+        int end = decoded.position();
+        int linesEnd = end;
+        while (linesEnd > 0
+                && chars[linesEnd - 1] != '\n') {
+            linesEnd--;
+        }
+        if (linesEnd > 0) {
+            pending.append(chars, 0, linesEnd);
+            emit();
+        }
+        pending.append(chars, linesEnd, end - linesEnd);
+        if (pending.length() >= maxChunkSize) {
+            emit();
+        }
+    }
+
+    private void emit() throws IOException {
+        String chunk = pending.toString();
+        pending.setLength(0);
+        sink.accept(chunk);
+    }
+}
@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+/**
+ * A chunk of process output as delivered by
+ * {@link ExecHelper#executeStreaming(String, boolean, java.io.File, java.util.Map, java.util.function.Consumer, String...)}.
+ * The text is a complete line including its terminator, or a fragment of a line that is too long or not terminated.
+ */
+public class ExecOutputChunk {
+    private final String text;
+    private final boolean stdErr;
+
+    public ExecOutputChunk(String text, boolean stdErr) {
+        this.text = text;
+        this.stdErr = stdErr;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isStdErr() {
+        return stdErr;
+    }
+
+    @Override
+    public String toString() {
+        return (stdErr ? "[stderr] " : "[stdout] ") + text;
+    }
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reads the output of many processes on a single thread. The pipes of a process cannot be selected, the thread thus
+ * polls each source for the output that is available without blocking, and sleeps for a while once no source had
+ * output. The sleep grows while the sources stay idle and is cut short when a source is added. The thread ends once
+ * there are no sources and is started again for the next one.
+ * The thread never waits for a single source: a source that cannot take output for now, ex. because its console is
+ * paused, is skipped until it is ready again, while the other sources keep being read.
+ */
+class ExecOutputMultiplexer {
+
+    private static final Logger LOG = Logger.getInstance(ExecOutputMultiplexer.class);
+
+    private static final long MIN_SLEEP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_SLEEP_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final ExecOutputMultiplexer INSTANCE = new ExecOutputMultiplexer();
+
+    /**
+     * An output that is read by the multiplexer.
+     */
+    interface Source {
+
+        /**
+         * Reads the output that is available without blocking.
+         *
+         * @return {@code true} if output was read
+         * @throws IOException if the output could not be read
+         */
+        boolean pump() throws IOException;
+
+        /**
+         * @return {@code false} if the output should not be read for now, the source is polled again later
+         */
+        default boolean isReady() {
+            return true;
+        }
+
+        /**
+         * @return {@code true} if the remaining output should be read and the source removed
+         */
+        boolean isStopRequested();
+
+        /**
+         * Called once the source was removed.
+         *
+         * @param error the error that occurred while reading or {@code null}
+         */
+        void finish(Throwable error);
+    }
+
+    private final List<Source> sources = new ArrayList<>();
+    private Thread thread;
+
+    static ExecOutputMultiplexer getInstance() {
+        return INSTANCE;
+    }
+
+    ExecOutputMultiplexer() {
+    }
+
+    void register(Source source) {
+        Thread toWake;
+        synchronized (this) {
+            sources.add(source);
+            if (thread == null) {
+                thread = ExecExecutors.getThreadFactory().newThread(this::run);
+                thread.start();
+                return;
+            }
+            toWake = thread;
+        }
+        LockSupport.unpark(toWake);
+    }
+
+    synchronized int size() {
+        return sources.size();
+    }
+
+    private void run() {
+        long sleepNanos = MIN_SLEEP_NANOS;
+        while (true) {
+            List<Source> snapshot;
+            synchronized (this) {
+                if (sources.isEmpty()) {
+                    thread = null;
+                    return;
+                }
+                snapshot = new ArrayList<>(sources);
+            }
+            boolean read = false;
+            for (Source source : snapshot) {
+                read |= pump(source);
+            }
+            if (read) {
+                sleepNanos = MIN_SLEEP_NANOS;
+            } else {
+                LockSupport.parkNanos(this, sleepNanos);
+                sleepNanos = Math.min(sleepNanos * 2, MAX_SLEEP_NANOS);
+            }
+        }
+    }
+
+    private boolean pump(Source source) {
+        try {
+            if (source.isStopRequested()) {
+                // drain what the process wrote before it exited
+                while (source.pump()) {
+                    // keep reading
+                }
+                remove(source, null);
+                return false;
+            }
+            if (!source.isReady()) {
+                return false;
+            }
+            return source.pump();
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Could not read process output, removing it from the multiplexer.", e);
+            remove(source, e);
+            return false;
+        }
+    }
+
+    private void remove(Source source, Throwable error) {
+        synchronized (this) {
+            sources.remove(source);
+        }
+        source.finish(error);
+    }
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * A bounded hand-over between the threads that pump the output of a process and the thread that consumes it.
+ * When the consumer falls behind, the pumping threads block once {@code capacity} chunks are pending. The process
+ * then blocks on its full output pipe so that memory use stays constant, whatever the amount of output.
+ */
+class ExecOutputPipe {
+
+    static final int DEFAULT_CAPACITY = 64;
+
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final BlockingQueue<ExecOutputChunk> queue;
+    private final ExecLineOutputStream stdOut;
+    private final ExecLineOutputStream stdErr;
+    private volatile Consumer<ExecOutputChunk> direct;
+
+    ExecOutputPipe(Charset charset, int capacity) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.stdOut = new ExecLineOutputStream(charset, chunk -> put(chunk, false));
+        this.stdErr = new ExecLineOutputStream(charset, chunk -> put(chunk, true));
+    }
+
+    OutputStream getStdOut() {
+        return stdOut;
+    }
+
+    OutputStream getStdErr() {
+        return stdErr;
+    }
+
+    private void put(String text, boolean isStdErr) throws IOException {
+        ExecOutputChunk chunk = new ExecOutputChunk(text, isStdErr);
+        Consumer<ExecOutputChunk> direct = this.direct;
+        if (direct != null) {
+            direct.accept(chunk);
+            return;
+        }
+        try {
+            queue.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the output consumer");
+        }
+    }
+
+    /**
+     * Hands the chunks over to the given consumer on the calling thread until {@code isDone} returns {@code true}.
+     * {@code isDone} must only return {@code true} once the pumping threads have terminated.
+     *
+     * @param consumer the consumer to hand the chunks to
+     * @param isDone   returns {@code true} once no further output is going to be written
+     * @throws InterruptedException if the calling thread was interrupted while waiting for output
+     */
+    void drain(Consumer<ExecOutputChunk> consumer, BooleanSupplier isDone) throws InterruptedException {
+        while (!isDone.getAsBoolean()) {
+            ExecOutputChunk chunk = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            if (chunk != null) {
+                consumer.accept(chunk);
+            }
+        }
+        ExecOutputChunk chunk;
+        while ((chunk = queue.poll()) != null) {
+            consumer.accept(chunk);
+        }
+        // pumping threads are done, the remaining incomplete lines can go straight to the consumer
+        this.direct = consumer;
+        closeQuietly(stdOut);
+        closeQuietly(stdErr);
+    }
+
+    private void closeQuietly(OutputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            // swallow
+        }
+    }
+}
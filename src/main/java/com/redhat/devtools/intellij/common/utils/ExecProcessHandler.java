@@ -12,15 +12,31 @@ package com.redhat.devtools.intellij.common.utils;
 
 import com.intellij.execution.process.KillableProcessHandler;
 import com.intellij.execution.process.OSProcessHandler;
+import com.intellij.execution.process.ProcessOutputTypes;
+import com.intellij.openapi.util.Key;
 import com.intellij.util.io.BaseDataReader;
 import com.intellij.util.io.BaseOutputReader;
+import java.io.FilterReader;
+import java.io.IOException;
 import java.io.Reader;
 import java.nio.charset.Charset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class ExecProcessHandler extends KillableProcessHandler {
 
+    /**
+     * The characters that a multiplexed reader reads per round of the shared thread, about one buffer of
+     * {@link BaseOutputReader}.
+     */
+    static final int PUMP_BUDGET_CHARS = 8192;
+
+    private final boolean multiplexed;
+    private volatile BooleanSupplier readSuspended = () -> false;
+
     /**
      *
      * @param process process
@@ -28,7 +44,58 @@ public class ExecProcessHandler extends KillableProcessHandler {
      * @param charset charset
      */
     public ExecProcessHandler(@NotNull Process process, /*@NotNull*/ String commandLine, @Nullable Charset charset) {
+        this(process, commandLine, charset, false);
+    }
+
+    /**
+     *
+     * @param process process
+     * @param commandLine must not be empty (for correct thread attribution in the stacktrace)
+     * @param charset charset
+     * @param multiplexed if the output is read by the thread that is shared with other processes (see
+     *                    {@link ExecOutputMultiplexer}) instead of a thread per output stream. Suits processes that
+     *                    run for long and output little, ex. {@code oc logs -f} or {@code oc get -w}.
+     */
+    public ExecProcessHandler(@NotNull Process process, /*@NotNull*/ String commandLine, @Nullable Charset charset,
+                              boolean multiplexed) {
         super(process, commandLine, charset);
+        this.multiplexed = multiplexed;
+    }
+
+    public boolean isMultiplexed() {
+        return multiplexed;
+    }
+
+    /**
+     * Sets the condition under which the output of a multiplexed handler is not read for now, ex. while the console
+     * that prints it is paused and cannot defer more output. The shared thread then reads the other processes, the
+     * output of this one stays in its pipes until the condition no longer holds. Has no effect if the handler is not
+     * multiplexed.
+     *
+     * @param readSuspended the condition or {@code null} to always read
+     */
+    void setReadSuspended(@Nullable BooleanSupplier readSuspended) {
+        this.readSuspended = readSuspended != null ? readSuspended : () -> false;
+    }
+
+    @NotNull
+    @Override
+    protected BaseDataReader createOutputDataReader() {
+        if (!multiplexed) {
+            return super.createOutputDataReader();
+        }
+        return new MultiplexedReader(new BudgetReader(createProcessOutReader()), ProcessOutputTypes.STDOUT,
+                "output stream of " + getCommandLine());
+    }
+
+    @NotNull
+    @Override
+    protected BaseDataReader createErrorDataReader() {
+        if (!multiplexed) {
+            return super.createErrorDataReader();
+        }
+        return new MultiplexedReader(new BudgetReader(createProcessErrReader()), ProcessOutputTypes.STDERR,
+                "error stream of " + getCommandLine());
     }
 
     @Override
@@ -36,7 +103,9 @@ public class ExecProcessHandler extends KillableProcessHandler {
         return new BaseOutputReader.Options() {
             @Override
             public BaseDataReader.SleepingPolicy policy() {
-                return BaseDataReader.SleepingPolicy.BLOCKING;
+                return multiplexed ?
+                        BaseDataReader.SleepingPolicy.NON_BLOCKING
+                        : BaseDataReader.SleepingPolicy.BLOCKING;
             }
 
             @Override
@@ -67,4 +136,108 @@ public class ExecProcessHandler extends KillableProcessHandler {
     protected Reader createProcessErrReader() {
         return new ExecReader(myProcess.getErrorStream());
     }
-}
\ No newline at end of file
+
+    /**
+     * A reader that does not run on a thread of its own but is polled by the {@link ExecOutputMultiplexer}.
+     */
+    private class MultiplexedReader extends BaseOutputReader implements ExecOutputMultiplexer.Source {
+
+        private final BudgetReader budgetReader;
+        private final Key<?> outputType;
+        private final CompletableFuture<Void> finished = new CompletableFuture<>();
+        private volatile boolean stopRequested = false;
+
+        private MultiplexedReader(@NotNull BudgetReader reader, Key<?> outputType, @NotNull String presentableName) {
+            super(reader, readerOptions());
+            this.budgetReader = reader;
+            this.outputType = outputType;
+            start(presentableName);
+        }
+
+        @NotNull
+        @Override
+        protected Future<?> executeOnPooledThread(@NotNull Runnable runnable) {
+            ExecOutputMultiplexer.getInstance().register(this);
+            return finished;
+        }
+
+        @Override
+        protected void onTextAvailable(@NotNull String text) {
+            notifyTextAvailable(text, outputType);
+        }
+
+        @Override
+        public void stop() {
+            stopRequested = true;
+            super.stop();
+        }
+
+        @Override
+        public boolean pump() throws IOException {
+            // reads one budget at most so that a process with a lot of output does not starve the others
+            budgetReader.reset(PUMP_BUDGET_CHARS);
+            return readAvailable();
+        }
+
+        @Override
+        public boolean isReady() {
+            return !readSuspended.getAsBoolean();
+        }
+
+        @Override
+        public boolean isStopRequested() {
+            return stopRequested;
+        }
+
+        @Override
+        public void finish(Throwable error) {
+            try {
+                close();
+            } catch (IOException e) {
+                // ignore, the output was read
+            }
+            finished.complete(null);
+        }
+    }
+
+    /**
+     * A reader that is no longer {@link #ready()} once its budget was read. {@link BaseOutputReader} reads while
+     * its reader is ready, the budget thus bounds what it reads at once.
+     */
+    private static class BudgetReader extends FilterReader {
+
+        private int budget = 0;
+
+        private BudgetReader(@NotNull Reader reader) {
+            super(reader);
+        }
+
+        private void reset(int budget) {
+            this.budget = budget;
+        }
+
+        @Override
+        public boolean ready() throws IOException {
+            return budget > 0
+                    && super.ready();
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read >= 0) {
+                budget--;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(@NotNull char[] cbuf, int offset, int length) throws IOException {
+            int read = super.read(cbuf, offset, length);
+            if (read > 0) {
+                budget -= read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.SystemInfo;
+import com.pty4j.PtyProcess;
+import com.pty4j.PtyProcessBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.redhat.devtools.intellij.common.CommonConstants.HOME_FOLDER;
+
+/**
+ * A pool of {@code /bin/sh} shells that are started in a PTY ahead of time, so that a terminal command does not wait
+ * for the PTY to be spawned. A shell is handed over to a command by having it {@code exec} the command, the
+ * {@link PtyProcess} then is the process of the command. The environment of the IDE is applied when the shell is
+ * started, the environment variables of the command are applied when it is handed over. The pool is refilled in the
+ * background.
+ * The pool is empty by default, see {@link #setSize(int)}. It is not supported on Windows.
+ */
+public class ExecPtyPool {
+
+    private static final Logger LOG = Logger.getInstance(ExecPtyPool.class);
+
+    private static final String SHELL = "/bin/sh";
+    private static final String[] PROMPTS = { "PS1", "PS2" };
+    private static final long READY_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    private static final long MAX_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private static final ExecPtyPool INSTANCE = new ExecPtyPool();
+
+    private final Deque<Shell> idle = new ArrayDeque<>();
+    private int size = 0;
+    private int starting = 0;
+
+    public static ExecPtyPool getInstance() {
+        return INSTANCE;
+    }
+
+    private ExecPtyPool() {
+    }
+
+    public static boolean isSupported() {
+        return !SystemInfo.isWindows;
+    }
+
+    /**
+     * Sets the number of shells that are kept ready. Shells are started in the background up to the given number,
+     * idle shells beyond it are terminated. 0 disables the pool.
+     *
+     * @param size the number of shells to keep ready
+     */
+    public void setSize(int size) {
+        Deque<Shell> surplus = new ArrayDeque<>();
+        synchronized (this) {
+            this.size = Math.max(0, size);
+            while (idle.size() > this.size) {
+                surplus.add(idle.removeLast());
+            }
+        }
+        surplus.forEach(Shell::destroy);
+        refill();
+    }
+
+    public synchronized int getSize() {
+        return size;
+    }
+
+    /**
+     * Hands an idle shell over to the given command. Returns {@code null} if there is no idle shell, the command
+     * then has to be started in a new PTY.
+     *
+     * @param workingDirectory the working directory for the command
+     * @param envs the environment variables for the command, in addition to the environment of the IDE
+     * @param command the command
+     * @return the process of the command or {@code null}
+     */
+    PtyProcess take(File workingDirectory, Map<String, String> envs, String... command) {
+        Shell shell;
+        while ((shell = pollIdle()) != null) {
+            try {
+                shell.exec(toScript(workingDirectory, envs, command));
+                return shell.process;
+            } catch (IOException e) {
+                LOG.debug("Could not hand " + SHELL + " over to " + command[0] + ", trying next one.", e);
+                shell.destroy();
+            }
+        }
+        return null;
+    }
+
+    private Shell pollIdle() {
+        Shell shell = null;
+        try {
+            synchronized (this) {
+                while ((shell = idle.pollFirst()) != null) {
+                    if (shell.isUsable()) {
+                        return shell;
+                    }
+                    shell.destroy();
+                }
+                return null;
+            }
+        } finally {
+            refill();
+        }
+    }
+
+    private void refill() {
+        synchronized (this) {
+            if (!isSupported()
+                    || idle.size() + starting >= size) {
+                return;
+            }
+            starting++;
+        }
+        ExecExecutors.getThreadFactory().newThread(() -> {
+            Shell shell = start();
+            boolean keep;
+            synchronized (this) {
+                starting--;
+                keep = shell != null
+                        && idle.size() < size;
+                if (keep) {
+                    idle.addLast(shell);
+                }
+            }
+            if (!keep
+                    && shell != null) {
+                shell.destroy();
+            }
+            if (shell != null) {
+                refill();
+            }
+        }).start();
+    }
+
+    private static Shell start() {
+        Map<String, String> env = new HashMap<>(System.getenv());
+        for (String prompt : PROMPTS) {
+            env.put(prompt, "");
+        }
+        PtyProcess process = null;
+        try {
+            PtyProcessBuilder builder = new PtyProcessBuilder(new String[] { SHELL });
+            builder.setEnvironment(env);
+            builder.setDirectory(HOME_FOLDER);
+            builder.setRedirectErrorStream(true);
+            process = builder.start();
+            Shell shell = new Shell(process);
+            shell.awaitReady();
+            return shell;
+        } catch (IOException e) {
+            LOG.warn("Could not start " + SHELL + " in a terminal, starting commands in new terminals.", e);
+            if (process != null) {
+                ExecAsyncExecution.killTree(process);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Builds the line that turns the shell into the command: the prompts of the IDE environment are restored, the
+     * terminal echoes again and the shell is replaced by the command. The shell exits if the working directory
+     * does not exist or the command cannot be executed.
+     */
+    static String toScript(File workingDirectory, Map<String, String> envs, String... command) {
+        StringBuilder script = new StringBuilder();
+        for (String prompt : PROMPTS) {
+            String value = System.getenv(prompt);
+            if (value == null) {
+                script.append("unset ").append(prompt).append("; ");
+            } else {
+                script.append("export ").append(prompt).append('=').append(quote(value)).append("; ");
+            }
+        }
+        script.append("stty echo; ");
+        if (workingDirectory != null) {
+            script.append("cd ").append(quote(workingDirectory.getPath())).append(" && ");
+        }
+        script.append("exec");
+        if (!envs.isEmpty()) {
+            script.append(" env");
+            envs.forEach((key, value) -> script.append(' ').append(quote(key + '=' + value)));
+        }
+        for (String argument : command) {
+            script.append(' ').append(quote(argument));
+        }
+        return script.append("; exit $?\n").toString();
+    }
+
+    /**
+     * Quotes the given value for the shell. A single quote within the value closes the quoting, is escaped and reopens it.
+     */
+    static String quote(String value) {
+        return '\'' + value.replace("'", "'\\''") + '\'';
+    }
+
+    /**
+     * Reads the given output up to and including the line that holds the given marker, so that the rest of the
+     * line, ex. the {@code \r\n} of a terminal, is not taken for the output of the command. The output is read byte
+     * by byte to not consume what follows the line.
+     *
+     * @param output the output to read
+     * @param marker the marker to look for
+     * @throws IOException if the output ended before the line with the marker
+     */
+    static void readLineWith(InputStream output, String marker) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int read;
+        while ((read = output.read()) != -1) {
+            if (read != '\n') {
+                line.write(read);
+            } else if (line.toString(Charset.defaultCharset()).contains(marker)) {
+                return;
+            } else {
+                line.reset();
+            }
+        }
+        throw new IOException(SHELL + " exited before it was ready");
+    }
+
+    private static class Shell {
+        // printed as one word but typed as two, to tell the output from the echo of the input
+        private static final String READY_PREFIX = "intellij-common-";
+        private static final String READY_SUFFIX = "pty-ready";
+
+        private final PtyProcess process;
+        private final long started = System.currentTimeMillis();
+
+        private Shell(PtyProcess process) {
+            this.process = process;
+        }
+
+        /**
+         * Turns off the echo of the terminal, so that the line that hands the shell over is not shown, and waits
+         * until the shell has processed it.
+         */
+        private void awaitReady() throws IOException {
+            write("stty -echo; printf '%s%s\\n' '" + READY_PREFIX + "' '" + READY_SUFFIX + "'\n");
+            ScheduledFuture<?> watchdog = ExecExecutors.schedule(this::destroy, READY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            try {
+                readLineWith(process.getInputStream(), READY_PREFIX + READY_SUFFIX);
+            } finally {
+                watchdog.cancel(false);
+            }
+        }
+
+        private void exec(String script) throws IOException {
+            write(script);
+        }
+
+        private void write(String line) throws IOException {
+            OutputStream input = process.getOutputStream();
+            input.write(line.getBytes(Charset.defaultCharset()));
+            input.flush();
+        }
+
+        private boolean isUsable() {
+            return process.isAlive()
+                    && System.currentTimeMillis() - started < MAX_IDLE_MILLIS;
+        }
+
+        private void destroy() {
+            ExecAsyncExecution.killTree(process);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.apache.commons.exec.PumpStreamHandler;
+import org.apache.commons.exec.StreamPumper;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A {@link PumpStreamHandler} that pumps the process streams on threads of {@link ExecExecutors#getThreadFactory()}
+ * instead of dedicated platform threads. If a telemetry recorder is given, the process is recorded as spawned when
+ * pumping starts, which is right after the process was started.
+ */
+class ExecPumpStreamHandler extends PumpStreamHandler {
+
+    private final ExecTelemetry.Recorder recorder;
+
+    ExecPumpStreamHandler(OutputStream outAndErr) {
+        this(outAndErr, outAndErr, null);
+    }
+
+    ExecPumpStreamHandler(OutputStream out, OutputStream err) {
+        this(out, err, null);
+    }
+
+    ExecPumpStreamHandler(OutputStream out, OutputStream err, @Nullable ExecTelemetry.Recorder recorder) {
+        super(out, err);
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void start() {
+        if (recorder != null) {
+            recorder.spawned();
+        }
+        super.start();
+    }
+
+    @Override
+    protected Thread createPump(InputStream is, OutputStream os, boolean closeWhenExhausted) {
+        return ExecExecutors.getThreadFactory().newThread(new StreamPumper(is, os, closeWhenExhausted));
+    }
+}
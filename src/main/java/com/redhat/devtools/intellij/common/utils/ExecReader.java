@@ -17,13 +17,21 @@ import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * Reads the output of a process and converts the line feeds that are not preceded by a carriage return to
+ * {@code \r\n}, as required by terminals. The characters between line feeds are copied in bulk and written directly
+ * into the buffer of the caller. The read buffer grows while the process outputs more than it holds.
+ */
 public class ExecReader extends BaseInputStreamReader {
 
-    private char[] readBuffer = new char[1024];
-    private char[] buffer = new char[readBuffer.length * 2];
-    private int bufferPosition = 0;
-    private int bufferSize = 0;
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_BUFFER_SIZE = 32 * 1024;
+
+    private char[] readBuffer = new char[INITIAL_BUFFER_SIZE];
+    private int readPosition = 0;
+    private int readSize = 0;
     private boolean justReadCR = false;
+    private final char[] singleChar = new char[1];
 
     public ExecReader(@NotNull InputStream in) {
         super(in);
@@ -33,89 +41,125 @@ public class ExecReader extends BaseInputStreamReader {
         super(in, cs);
     }
 
-    private boolean refillBufferIfNeeded(boolean onlyIfReady) throws IOException {
-        if (bufferPosition < bufferSize || (onlyIfReady && !super.ready())) {
-            return false;
+    /**
+     * Reads into the read buffer once it was converted entirely. The buffer is doubled if the previous read filled it.
+     *
+     * @return {@code false} if the end of the stream is reached
+     */
+    private boolean fill() throws IOException {
+        if (readPosition < readSize) {
+            return true;
         }
-        bufferPosition = 0;
-        bufferSize = 0;
-
-        char[] readBuffer = this.readBuffer;
+        if (readSize == readBuffer.length
+                && readBuffer.length < MAX_BUFFER_SIZE) {
+            readBuffer = new char[readBuffer.length * 2];
+        }
+        readPosition = 0;
+        readSize = 0;
         int read = super.read(readBuffer, 0, readBuffer.length); // To not get delegated back to us
         if (read < 0) {
-            return true; // EOF
+            return false;
         }
+        readSize = read;
+        return true;
+    }
 
-        boolean justReadCR = this.justReadCR;
-        char[] buffer = this.buffer;
-        int outI = 0;
-        for (int i =0; i<read; i++) {
-            char c = readBuffer[i];
-            // If we encounter \n without preceding \r, add it.
-            if (c == '\n' && !justReadCR) {
-                buffer[outI++] = '\r';
+    /**
+     * Converts the characters of the read buffer into the given array until either is exhausted. A line feed that
+     * does not fit with its inserted carriage return is left in the read buffer, the carriage return is written
+     * alone if it fits.
+     *
+     * @return the number of characters written into the given array
+     */
+    private int convert(char[] target, int offset, int length) {
+        char[] source = readBuffer;
+        int in = readPosition;
+        int end = readSize;
+        int out = offset;
+        int outEnd = offset + length;
+        while (in < end
+                && out < outEnd) {
+            int lineFeed = indexOfLineFeed(source, in, end);
+            int copied = Math.min(lineFeed - in, outEnd - out);
+            if (copied > 0) {
+                System.arraycopy(source, in, target, out, copied);
+                in += copied;
+                out += copied;
+                justReadCR = source[in - 1] == '\r';
+            }
+            if (in < lineFeed
+                    || lineFeed == end
+                    || out == outEnd) {
+                break;
             }
-            buffer[outI++] = c;
-            justReadCR = c == '\r';
+            if (!justReadCR) {
+                // If we encounter \n without preceding \r, add it.
+                target[out++] = '\r';
+                justReadCR = true;
+                if (out == outEnd) {
+                    break;
+                }
+            }
+            target[out++] = '\n';
+            justReadCR = false;
+            in++;
         }
-        bufferSize = outI;
-        this.justReadCR = justReadCR;
-        return false;
+        readPosition = in;
+        return out - offset;
+    }
+
+    private static int indexOfLineFeed(char[] chars, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (chars[i] == '\n') {
+                return i;
+            }
+        }
+        return to;
     }
 
     @Override
     public int read() throws IOException {
-        if (refillBufferIfNeeded(false)) {
+        if (read(singleChar, 0, 1) < 0) {
             return -1; // EOF
         }
-        return buffer[bufferPosition++];
+        return singleChar[0];
     }
 
     @Override
     public int read(@NotNull char[] cbuf, int offset, int length) throws IOException {
-        if (refillBufferIfNeeded(false)) {// Blocking
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {// Blocking
             return -1; // EOF
         }
-
-        int read = 0;
-        while (bufferPosition < bufferSize && read < length) {
-            int available = bufferSize - bufferPosition;
-            int required = length - read;
-            int copied = Math.min(available, required);
-            System.arraycopy(buffer, bufferPosition, cbuf, offset + read, copied);
-            read += copied;
-            bufferPosition += copied;
-
-            if (refillBufferIfNeeded(true)) {
-                break;
-            }
+        int read = convert(cbuf, offset, length);
+        while (read < length
+                && super.ready()
+                && fill()) {
+            read += convert(cbuf, offset + read, length - read);
         }
         return read;
     }
 
     @Override
     public boolean ready() throws IOException {
-        return bufferPosition < bufferSize || super.ready();
+        return readPosition < readSize || super.ready();
     }
 
     @Override
     public int read(@NotNull CharBuffer target) throws IOException {
-        if (refillBufferIfNeeded(false)) {// Blocking
-            return -1; // EOF
-        }
-
-        int read = 0;
-        while (bufferPosition < bufferSize && target.remaining() > 0) {
-            int available = bufferSize - bufferPosition;
-            int required = target.remaining();
-            int copied = Math.min(available, required);
-            target.put(buffer, bufferPosition, copied);
-            read += copied;
-            bufferPosition += copied;
-
-            if (refillBufferIfNeeded(true)) {
-                break;
+        if (target.hasArray()) {
+            int read = read(target.array(), target.arrayOffset() + target.position(), target.remaining());
+            if (read > 0) {
+                target.position(target.position() + read);
             }
+            return read;
+        }
+        char[] chars = new char[Math.min(target.remaining(), MAX_BUFFER_SIZE)];
+        int read = read(chars, 0, chars.length);
+        if (read > 0) {
+            target.put(chars, 0, read);
         }
         return read;
     }
@@ -127,21 +171,19 @@ public class ExecReader extends BaseInputStreamReader {
 
     @Override
     public long skip(long n) throws IOException {
-        if (refillBufferIfNeeded(false)) {// Blocking
+        char[] chars = new char[(int) Math.min(n, MAX_BUFFER_SIZE)];
+        int read = read(chars, 0, chars.length);
+        if (read < 0) {
             return -1; // EOF
         }
-
-        long skipped = 0L;
-        while (bufferPosition < bufferSize && skipped < n) {
-            long available = (bufferSize - bufferPosition);
-            long required = n - skipped;
-            long copied = Math.min(available, required);
-            skipped += copied;
-            bufferPosition += copied;
-
-            if (refillBufferIfNeeded(true)) {
+        long skipped = read;
+        while (skipped < n
+                && ready()) {
+            read = read(chars, 0, (int) Math.min(n - skipped, chars.length));
+            if (read < 0) {
                 break;
             }
+            skipped += read;
         }
         return skipped;
     }
@@ -161,4 +203,3 @@ public class ExecReader extends BaseInputStreamReader {
         super.reset();
     }
 }
-
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.application.ApplicationManager;
+import io.fabric8.kubernetes.client.Config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongSupplier;
+
+/**
+ * Memoizes the output of idempotent, read-only commands such as {@code oc version} or {@code oc api-resources}.
+ * Entries expire after the time to live that is given when executing, the least recently used entries are evicted
+ * once the maximum size is reached. Concurrent executions of the same command share a single process.
+ * The cache is cleared when it is notified of a change in the kubernetes config, see {@link #watchKubeConfig()}.
+ * <pre>
+ *     ExecResultCache cache = new ExecResultCache();
+ *     cache.watchKubeConfig();
+ *     String resources = cache.execute(new ExecCommand("oc", "api-resources"), Duration.ofMinutes(5));
+ * </pre>
+ */
+public class ExecResultCache implements ConfigWatcher.Listener {
+
+    public static final int DEFAULT_MAX_SIZE = 128;
+
+    @FunctionalInterface
+    interface Loader {
+        String load(ExecCommand command) throws IOException;
+    }
+
+    private final Map<ExecCommand, Entry> entries;
+    private final Map<ExecCommand, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final Loader loader;
+    private final LongSupplier clock;
+    private long generation = 0;
+    private ConfigWatcher watcher;
+
+    public ExecResultCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public ExecResultCache(int maxSize) {
+        this(maxSize, ExecCommand::execute, System::nanoTime);
+    }
+
+    ExecResultCache(int maxSize, Loader loader, LongSupplier clock) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ExecCommand, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.loader = loader;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached output of the given command, executes it if there is no valid cached output. If the
+     * same command is already executing, waits for it instead of executing it a second time.
+     *
+     * @param command the command to execute
+     * @param timeToLive the time the output remains valid
+     * @return the combined output and error stream as a String
+     * @throws IOException if error during process execution
+     */
+    public String execute(ExecCommand command, Duration timeToLive) throws IOException {
+        long currentGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(command);
+            if (entry != null) {
+                if (!entry.isExpired(clock.getAsLong())) {
+                    return entry.value;
+                }
+                entries.remove(command);
+            }
+            currentGeneration = generation;
+        }
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(command, future);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            String value = loader.load(command);
+            put(command, value, timeToLive, currentGeneration);
+            future.complete(value);
+            return value;
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(command, future);
+        }
+    }
+
+    public String execute(Duration timeToLive, String executable, String... arguments) throws IOException {
+        return execute(new ExecCommand(executable, arguments), timeToLive);
+    }
+
+    private synchronized void put(ExecCommand command, String value, Duration timeToLive, long loadedGeneration) {
+        if (loadedGeneration != generation) {
+            // invalidated while executing, value may be stale
+            return;
+        }
+        entries.put(command, new Entry(value, clock.getAsLong() + timeToLive.toNanos()));
+    }
+
+    private String await(CompletableFuture<String> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause().getLocalizedMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Removes the cached output of the given command.
+     *
+     * @param command the command whose output should be removed
+     */
+    public synchronized void invalidate(ExecCommand command) {
+        entries.remove(command);
+    }
+
+    /**
+     * Removes all cached outputs. Commands that are executing while invalidating are not cached once they
+     * terminate and are not shared with subsequent executions.
+     */
+    public synchronized void invalidate() {
+        generation++;
+        entries.clear();
+        inFlight.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void onUpdate(Config updatedConfig, Exception error) {
+        invalidate();
+    }
+
+    /**
+     * Starts watching the kubernetes config files and invalidates the cache whenever they change.
+     */
+    public synchronized void watchKubeConfig() {
+        if (watcher != null) {
+            return;
+        }
+        this.watcher = new ConfigWatcher(this);
+        ApplicationManager.getApplication().executeOnPooledThread(watcher);
+    }
+
+    /**
+     * Stops watching the kubernetes config files.
+     *
+     * @throws IOException if the watcher could not be closed
+     */
+    public synchronized void stopWatchingKubeConfig() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
+    private static class Entry {
+        private final String value;
+        private final long expiresAt;
+
+        private Entry(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
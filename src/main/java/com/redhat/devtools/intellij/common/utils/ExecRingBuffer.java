@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * The most recent output of a long-running command, ex. {@code oc logs -f}. Keeps at most a number of lines or of
+ * characters, the oldest lines are dropped once the capacity is exceeded and are counted.
+ * <pre>
+ *     ExecRingBuffer buffer = ExecRingBuffer.ofLines(10000);
+ *     ExecHelper.executeWithUI(envs, null, buffer, text -> area.setText(text), "oc", "logs", "-f", pod);
+ * </pre>
+ */
+public class ExecRingBuffer {
+
+    private final int maxLines;
+    private final long maxChars;
+    private final Deque<String> lines = new ArrayDeque<>();
+    private final StringBuilder partialLine = new StringBuilder();
+    private long chars = 0;
+    private long droppedLines = 0;
+
+    /**
+     * @param maxLines the maximum number of lines to keep
+     * @return a buffer that keeps at most the given number of lines
+     */
+    public static ExecRingBuffer ofLines(int maxLines) {
+        return new ExecRingBuffer(maxLines, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param maxChars the maximum number of characters to keep
+     * @return a buffer that keeps at most the given number of characters, in whole lines
+     */
+    public static ExecRingBuffer ofChars(long maxChars) {
+        return new ExecRingBuffer(Integer.MAX_VALUE, maxChars);
+    }
+
+    public ExecRingBuffer(int maxLines, long maxChars) {
+        this.maxLines = Math.max(1, maxLines);
+        this.maxChars = Math.max(1, maxChars);
+    }
+
+    /**
+     * Appends the given text and drops the oldest lines that exceed the capacity. The incomplete last line is kept
+     * until it is completed by subsequent text.
+     *
+     * @param text the text to append
+     */
+    public synchronized void append(String text) {
+        int start = 0;
+        int end;
+        while ((end = text.indexOf('\n', start)) != -1) {
+            String line;
+            if (partialLine.length() > 0) {
+                line = partialLine.append(text, start, end + 1).toString();
+                partialLine.setLength(0);
+            } else {
+                line = text.substring(start, end + 1);
+            }
+            lines.addLast(line);
+            start = end + 1;
+        }
+        partialLine.append(text, start, text.length());
+        chars += text.length();
+        trim();
+    }
+
+    private void trim() {
+        while (!lines.isEmpty()
+                && (lines.size() > maxLines
+                || chars > maxChars)) {
+            chars -= lines.removeFirst().length();
+            droppedLines++;
+        }
+        if (partialLine.length() > maxChars) {
+            // a single line that exceeds the capacity, keeps its end
+            int excess = (int) (partialLine.length() - maxChars);
+            partialLine.delete(0, excess);
+            chars -= excess;
+        }
+    }
+
+    /**
+     * @return the number of lines that were dropped so far
+     */
+    public synchronized long getDroppedLines() {
+        return droppedLines;
+    }
+
+    /**
+     * @return the number of lines that are kept, including the incomplete last line
+     */
+    public synchronized int getLineCount() {
+        return lines.size() + (partialLine.length() > 0 ? 1 : 0);
+    }
+
+    public synchronized void clear() {
+        lines.clear();
+        partialLine.setLength(0);
+        chars = 0;
+        droppedLines = 0;
+    }
+
+    /**
+     * @return the text that is kept
+     */
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder((int) Math.min(Integer.MAX_VALUE - 8, chars));
+        for (String line : lines) {
+            builder.append(line);
+        }
+        return builder.append(partialLine).toString();
+    }
+}
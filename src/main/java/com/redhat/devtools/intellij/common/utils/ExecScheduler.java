@@ -0,0 +1,398 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.project.Project;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.redhat.devtools.intellij.common.CommonConstants.HOME_FOLDER;
+
+/**
+ * Limits the number of processes that run concurrently for a given executable. Invocations that exceed the limit
+ * are queued, {@link Priority#USER} invocations are started before {@link Priority#BACKGROUND} ones and invocations
+ * of the same priority are started in the order they were submitted.
+ * <pre>
+ *     ExecScheduler.getInstance().setMaxConcurrency("oc", 4);
+ *     String output = ExecScheduler.getInstance().execute(Priority.BACKGROUND, "oc", "get", "pods", "-n", namespace);
+ * </pre>
+ */
+public class ExecScheduler {
+
+    public enum Priority {
+        /**
+         * invocations that a user is waiting for
+         */
+        USER,
+        /**
+         * background invocations ex. refreshing a tree
+         */
+        BACKGROUND
+    }
+
+    @FunctionalInterface
+    public interface ExecTask<T> {
+        T call() throws IOException;
+    }
+
+    private static final ExecScheduler INSTANCE = new ExecScheduler();
+
+    public static ExecScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> maxConcurrencies = new ConcurrentHashMap<>();
+    private volatile int defaultMaxConcurrency;
+
+    ExecScheduler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    ExecScheduler(int defaultMaxConcurrency) {
+        this.defaultMaxConcurrency = Math.max(1, defaultMaxConcurrency);
+    }
+
+    /**
+     * Sets the maximum number of processes that run concurrently for executables without a specific limit.
+     *
+     * @param maxConcurrency the maximum number of concurrent processes
+     */
+    public void setDefaultMaxConcurrency(int maxConcurrency) {
+        this.defaultMaxConcurrency = Math.max(1, maxConcurrency);
+        lanes.values().forEach(Lane::startWaiting);
+    }
+
+    /**
+     * Sets the maximum number of processes that run concurrently for the given executable.
+     *
+     * @param executable the executable, the name or the path to it
+     * @param maxConcurrency the maximum number of concurrent processes
+     */
+    public void setMaxConcurrency(String executable, int maxConcurrency) {
+        String key = getKey(executable);
+        maxConcurrencies.put(key, Math.max(1, maxConcurrency));
+        Lane lane = lanes.get(key);
+        if (lane != null) {
+            lane.startWaiting();
+        }
+    }
+
+    public int getMaxConcurrency(String executable) {
+        return maxConcurrencies.getOrDefault(getKey(executable), defaultMaxConcurrency);
+    }
+
+    /**
+     * Runs the given task once the limit for the given executable allows it. Blocks the calling thread while the
+     * task is queued and while it is running.
+     *
+     * @param executable the executable that the task invokes
+     * @param priority the priority of the task
+     * @param task the task to run
+     * @return the result of the task
+     * @param <T> the type of the result
+     * @throws IOException if the task failed or the calling thread was interrupted while queued
+     */
+    public <T> T run(String executable, Priority priority, ExecTask<T> task) throws IOException {
+        Lane lane = getLane(executable);
+        long waitNanos;
+        try {
+            waitNanos = lane.acquire(priority);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to execute " + executable, e);
+        }
+        ExecTelemetry.setQueueWait(waitNanos);
+        try {
+            return task.call();
+        } finally {
+            ExecTelemetry.clearQueueWait();
+            lane.release();
+        }
+    }
+
+    /**
+     * @see ExecHelper#execute(String, boolean, File, Map, String...)
+     */
+    public String execute(Priority priority, String executable, boolean checkExitCode, File workingDirectory,
+                          Map<String, String> envs, String... arguments) throws IOException {
+        return run(executable, priority,
+                () -> ExecHelper.execute(executable, checkExitCode, workingDirectory, envs, arguments));
+    }
+
+    /**
+     * @see ExecHelper#execute(String, String...)
+     */
+    public String execute(Priority priority, String executable, String... arguments) throws IOException {
+        return execute(priority, executable, true, new File(HOME_FOLDER), Collections.emptyMap(), arguments);
+    }
+
+    /**
+     * @see ExecHelper#executeWithResult(String, boolean, File, Map, String...)
+     */
+    public ExecHelper.ExecResult executeWithResult(Priority priority, String executable, boolean checkExitCode,
+                                                   File workingDirectory, Map<String, String> envs,
+                                                   String... arguments) throws IOException {
+        return run(executable, priority,
+                () -> ExecHelper.executeWithResult(executable, checkExitCode, workingDirectory, envs, arguments));
+    }
+
+    /**
+     * Terminal invocations hold their slot until the process exited if {@code waitForProcessToExit} is true, until
+     * the process is started otherwise.
+     *
+     * @see ExecHelper#executeWithTerminal(Project, String, File, boolean, Map, String...)
+     */
+    public void executeWithTerminal(Priority priority, Project project, String title, File workingDirectory,
+                                    boolean waitForProcessToExit, Map<String, String> envs,
+                                    String... command) throws IOException {
+        run(command[0], priority, () -> {
+            ExecHelper.executeWithTerminal(project, title, workingDirectory, waitForProcessToExit, envs, command);
+            return null;
+        });
+    }
+
+    /**
+     * @param executable the executable, the name or the path to it
+     * @return the number of invocations that are waiting for the given executable
+     */
+    public int getQueueDepth(String executable) {
+        Lane lane = lanes.get(getKey(executable));
+        return lane == null ? 0 : lane.getQueueDepth();
+    }
+
+    /**
+     * @return the number of invocations that are waiting, for all executables
+     */
+    public int getQueueDepth() {
+        return lanes.values().stream()
+                .mapToInt(Lane::getQueueDepth)
+                .sum();
+    }
+
+    /**
+     * @param executable the executable, the name or the path to it
+     * @return the queue metrics for the given executable
+     */
+    public Metrics getMetrics(String executable) {
+        Lane lane = lanes.get(getKey(executable));
+        return lane == null ? new Metrics(0, 0, 0, 0, 0) : lane.getMetrics();
+    }
+
+    private Lane getLane(String executable) {
+        String key = getKey(executable);
+        return lanes.computeIfAbsent(key, k -> new Lane(k));
+    }
+
+    /**
+     * Returns the key that limits are applied to: the file name of the executable without extension, so that
+     * {@code /usr/local/bin/oc} and {@code oc.exe} share the limit of {@code oc}.
+     */
+    static String getKey(String executable) {
+        String name = executable;
+        int separator = Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\'));
+        if (separator >= 0) {
+            name = name.substring(separator + 1);
+        }
+        if (name.toLowerCase().endsWith(".exe")) {
+            name = name.substring(0, name.length() - 4);
+        }
+        return name;
+    }
+
+    public static class Metrics {
+        private final int queueDepth;
+        private final int running;
+        private final long started;
+        private final long totalWaitTime;
+        private final long maxWaitTime;
+
+        Metrics(int queueDepth, int running, long started, long totalWaitTime, long maxWaitTime) {
+            this.queueDepth = queueDepth;
+            this.running = running;
+            this.started = started;
+            this.totalWaitTime = totalWaitTime;
+            this.maxWaitTime = maxWaitTime;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public int getRunning() {
+            return running;
+        }
+
+        /**
+         * @return the number of invocations that were started so far
+         */
+        public long getStarted() {
+            return started;
+        }
+
+        /**
+         * @return the time that started invocations spent in the queue, in milliseconds
+         */
+        public long getTotalWaitTime() {
+            return totalWaitTime;
+        }
+
+        /**
+         * @return the longest time an invocation spent in the queue, in milliseconds
+         */
+        public long getMaxWaitTime() {
+            return maxWaitTime;
+        }
+
+        /**
+         * @return the average time an invocation spent in the queue, in milliseconds
+         */
+        public long getAverageWaitTime() {
+            return started == 0 ? 0 : totalWaitTime / started;
+        }
+    }
+
+    private static class Ticket implements Comparable<Ticket> {
+        private final Priority priority;
+        private final long sequence;
+        private boolean granted = false;
+
+        private Ticket(Priority priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Ticket other) {
+            int result = priority.compareTo(other.priority);
+            if (result == 0) {
+                result = Long.compare(sequence, other.sequence);
+            }
+            return result;
+        }
+    }
+
+    private class Lane {
+        private final String executable;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition granted = lock.newCondition();
+        private final PriorityQueue<Ticket> queue = new PriorityQueue<>();
+        private final AtomicLong sequence = new AtomicLong();
+        private int running = 0;
+        private long started = 0;
+        private long totalWaitNanos = 0;
+        private long maxWaitNanos = 0;
+
+        private Lane(String executable) {
+            this.executable = executable;
+        }
+
+        private int getMaxConcurrency() {
+            return maxConcurrencies.getOrDefault(executable, defaultMaxConcurrency);
+        }
+
+        private long acquire(Priority priority) throws InterruptedException {
+            long queued = System.nanoTime();
+            lock.lock();
+            try {
+                if (queue.isEmpty()
+                        && running < getMaxConcurrency()) {
+                    running++;
+                    onStarted(0);
+                    return 0;
+                }
+                Ticket ticket = new Ticket(priority, sequence.incrementAndGet());
+                queue.add(ticket);
+                try {
+                    while (!ticket.granted) {
+                        granted.await();
+                    }
+                } catch (InterruptedException e) {
+                    if (ticket.granted) {
+                        running--;
+                        startWaiting();
+                    } else {
+                        queue.remove(ticket);
+                    }
+                    throw e;
+                }
+                long waitNanos = System.nanoTime() - queued;
+                onStarted(waitNanos);
+                return waitNanos;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void release() {
+            lock.lock();
+            try {
+                running--;
+                startWaiting();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void startWaiting() {
+            lock.lock();
+            try {
+                boolean grantedAny = false;
+                while (!queue.isEmpty()
+                        && running < getMaxConcurrency()) {
+                    queue.poll().granted = true;
+                    running++;
+                    grantedAny = true;
+                }
+                if (grantedAny) {
+                    granted.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void onStarted(long waitNanos) {
+            started++;
+            totalWaitNanos += waitNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+        }
+
+        private int getQueueDepth() {
+            lock.lock();
+            try {
+                return queue.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Metrics getMetrics() {
+            lock.lock();
+            try {
+                return new Metrics(queue.size(), running, started,
+                        TimeUnit.NANOSECONDS.toMillis(totalWaitNanos),
+                        TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The most recent lines that were printed to a {@link CommonTerminalExecutionConsole}, indexed by line. The text is
+ * kept as UTF-8 in memory up to a threshold and moved to a temporary file beyond it, see
+ * {@link ExecSpillableOutputStream}. The index holds the character and the byte offset at which each line starts, the
+ * line of an offset is thus found with a binary search and a line is read without reading the preceding ones.
+ * Lines are numbered from the first line that was printed. Only the given maximum number of lines is kept, like the
+ * buffer of the terminal: once as many lines were dropped as are kept, the kept lines are copied to new storage and
+ * the dropped ones are released, the index and the text thus stay within twice the maximum.
+ * Once disposed, text that is still appended, ex. by a process that outlives its console, is ignored.
+ */
+class ExecScrollback {
+
+    static final long DEFAULT_MEMORY_THRESHOLD = 256 * 1024;
+
+    private static final int SEARCH_BLOCK_SIZE = 64 * 1024;
+    private static final int COPY_BLOCK_SIZE = 64 * 1024;
+
+    private final int maxLines;
+    private final long memoryThreshold;
+    private ExecSpillableOutputStream content;
+    // the offsets of the stored lines, the line at index 0 is line storedFrom
+    private long[] charOffsets = new long[1024];
+    private long[] byteOffsets = new long[1024];
+    private int storedFrom = 0;
+    private int firstLine = 0;
+    private int lineCount = 1;
+    private long length = 0;
+    private boolean disposed = false;
+
+    /**
+     * @param maxLines the maximum number of lines that are kept
+     */
+    ExecScrollback(int maxLines) {
+        this(maxLines, DEFAULT_MEMORY_THRESHOLD);
+    }
+
+    /**
+     * @param maxLines the maximum number of lines that are kept
+     * @param memoryThreshold the number of bytes that are kept in memory before the text is moved to a file
+     */
+    ExecScrollback(int maxLines, long memoryThreshold) {
+        this.maxLines = Math.max(1, maxLines);
+        this.memoryThreshold = memoryThreshold;
+        this.content = new ExecSpillableOutputStream(memoryThreshold);
+    }
+
+    /**
+     * Appends the given text and indexes the lines that it starts. The oldest lines are dropped beyond the maximum.
+     *
+     * @param text the text to append
+     * @throws IOException if the text could not be written to the temporary file
+     */
+    synchronized void append(String text) throws IOException {
+        if (disposed
+                || text.isEmpty()) {
+            return;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        long byteStart = content.getSize();
+        content.write(bytes, 0, bytes.length);
+        // \n is never part of a multi-byte sequence, the n-th \n in the chars is the n-th \n in the bytes
+        int byteIndex = 0;
+        for (int i = text.indexOf('\n'); i != -1; i = text.indexOf('\n', i + 1)) {
+            while (bytes[byteIndex] != '\n') {
+                byteIndex++;
+            }
+            byteIndex++;
+            addLine(length + i + 1, byteStart + byteIndex);
+        }
+        length += text.length();
+        if (firstLine - storedFrom >= maxLines) {
+            compact();
+        }
+    }
+
+    private void addLine(long charOffset, long byteOffset) {
+        int index = lineCount - storedFrom;
+        if (index == charOffsets.length) {
+            charOffsets = Arrays.copyOf(charOffsets, index * 2);
+            byteOffsets = Arrays.copyOf(byteOffsets, index * 2);
+        }
+        charOffsets[index] = charOffset;
+        byteOffsets[index] = byteOffset;
+        lineCount++;
+        if (lineCount - firstLine > maxLines) {
+            firstLine++;
+        }
+    }
+
+    /**
+     * Copies the lines that are kept to new storage and releases the ones that were dropped.
+     */
+    private void compact() throws IOException {
+        int dropped = firstLine - storedFrom;
+        long byteStart = byteOffsets[dropped];
+        ExecSpillableOutputStream kept = new ExecSpillableOutputStream(memoryThreshold);
+        byte[] buffer = new byte[COPY_BLOCK_SIZE];
+        long position = byteStart;
+        int read;
+        while ((read = content.read(position, buffer, 0, buffer.length)) > 0) {
+            kept.write(buffer, 0, read);
+            position += read;
+        }
+        content.dispose();
+        content = kept;
+        int stored = lineCount - firstLine;
+        int capacity = Math.max(1024, Integer.highestOneBit(stored) * 2);
+        long[] chars = new long[capacity];
+        long[] bytes = new long[capacity];
+        System.arraycopy(charOffsets, dropped, chars, 0, stored);
+        for (int i = 0; i < stored; i++) {
+            bytes[i] = byteOffsets[dropped + i] - byteStart;
+        }
+        charOffsets = chars;
+        byteOffsets = bytes;
+        storedFrom = firstLine;
+    }
+
+    /**
+     * @return the number of characters
+     */
+    synchronized long getLength() {
+        return length;
+    }
+
+    /**
+     * @return the number of lines that were printed, the last one is incomplete or empty
+     */
+    synchronized int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * @return the first line that is kept, the preceding ones were dropped
+     */
+    synchronized int getFirstLine() {
+        return firstLine;
+    }
+
+    synchronized boolean isSpilled() {
+        return content.isSpilled();
+    }
+
+    /**
+     * @param line the line
+     * @return the offset of the first character of the given line
+     */
+    synchronized long getLineStartOffset(int line) {
+        checkLine(line);
+        return charOffsets[line - storedFrom];
+    }
+
+    /**
+     * Returns the line that contains the given offset.
+     *
+     * @param offset the offset of a character
+     * @return the line of the character, the first line that is kept if the line of the character was dropped, the
+     * last line if the offset is beyond the end
+     */
+    synchronized int getLineOfOffset(long offset) {
+        int first = firstLine - storedFrom;
+        int index = Arrays.binarySearch(charOffsets, first, lineCount - storedFrom, offset);
+        index = index >= 0 ? index : -index - 2;
+        return storedFrom + Math.max(first, index);
+    }
+
+    /**
+     * @param line the line
+     * @return the text of the given line, including its line separator
+     * @throws IOException if the temporary file could not be read
+     */
+    synchronized String getLine(int line) throws IOException {
+        checkLine(line);
+        return read(getLineStartByte(line), getLineEndByte(line));
+    }
+
+    /**
+     * Searches the given text, starting at the given offset. The text is searched within the lines that are kept, it
+     * is not found if it spans several lines.
+     *
+     * @param text the text to search
+     * @param fromOffset the offset to start at
+     * @return the offset of the text or -1 if it was not found
+     * @throws IOException if the temporary file could not be read
+     */
+    synchronized long find(String text, long fromOffset) throws IOException {
+        if (text.isEmpty()
+                || fromOffset >= length) {
+            return -1;
+        }
+        int line = getLineOfOffset(fromOffset);
+        while (line < lineCount) {
+            // read whole lines in blocks, at least one line
+            int lastLine = line;
+            while (lastLine + 1 < lineCount
+                    && getLineEndByte(lastLine + 1) - getLineStartByte(line) <= SEARCH_BLOCK_SIZE) {
+                lastLine++;
+            }
+            String block = read(getLineStartByte(line), getLineEndByte(lastLine));
+            long lineStart = charOffsets[line - storedFrom];
+            int from = (int) Math.max(0, fromOffset - lineStart);
+            int index = block.indexOf(text, from);
+            if (index >= 0) {
+                return lineStart + index;
+            }
+            line = lastLine + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Discards the text and its index.
+     */
+    synchronized void clear() {
+        if (disposed) {
+            return;
+        }
+        content.dispose();
+        content = new ExecSpillableOutputStream(memoryThreshold);
+        charOffsets = new long[1024];
+        byteOffsets = new long[1024];
+        storedFrom = 0;
+        firstLine = 0;
+        lineCount = 1;
+        length = 0;
+    }
+
+    /**
+     * Deletes the temporary file, the text that is appended afterwards is ignored.
+     */
+    synchronized void dispose() {
+        disposed = true;
+        content.dispose();
+    }
+
+    private long getLineStartByte(int line) {
+        return byteOffsets[line - storedFrom];
+    }
+
+    private long getLineEndByte(int line) {
+        return line + 1 < lineCount ? getLineStartByte(line + 1) : content.getSize();
+    }
+
+    private String read(long start, long end) throws IOException {
+        if (disposed) {
+            return "";
+        }
+        byte[] bytes = new byte[(int) (end - start)];
+        int read = 0;
+        while (read < bytes.length) {
+            int n = content.read(start + read, bytes, read, bytes.length - read);
+            if (n < 0) {
+                break;
+            }
+            read += n;
+        }
+        return new String(bytes, 0, read, StandardCharsets.UTF_8);
+    }
+
+    private void checkLine(int line) {
+        if (line < firstLine
+                || line >= lineCount) {
+            throw new IndexOutOfBoundsException("Line " + line + " is not within " + firstLine + " and " + (lineCount - 1));
+        }
+    }
+}
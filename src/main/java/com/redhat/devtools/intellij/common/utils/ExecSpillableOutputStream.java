@@ -0,0 +1,369 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * An {@link OutputStream} that keeps the bytes written to it in memory up to a threshold and moves them to a
+ * temporary file once the threshold is exceeded. The content can then be read through memory-mapped accessors
+ * without being materialized on the heap. {@link #close()} does not prevent reading, {@link #dispose()} deletes the
+ * temporary files.
+ */
+class ExecSpillableOutputStream extends OutputStream {
+
+    private static final String TEMP_FILE_PREFIX = "intellij-common-exec-";
+
+    private final long threshold;
+    private byte[] memory = new byte[256];
+    private int memorySize = 0;
+    private Path file;
+    private FileChannel channel;
+    private long size = 0;
+    private Path charsFile;
+    private Charset charsFileCharset;
+
+    ExecSpillableOutputStream(long threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        if (channel == null
+                && memorySize + len > threshold) {
+            spill();
+        }
+        if (channel != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } else {
+            if (memorySize + len > memory.length) {
+                memory = Arrays.copyOf(memory, (int) Math.min(threshold, Math.max(memory.length * 2L, memorySize + len)));
+            }
+            System.arraycopy(b, off, memory, memorySize, len);
+            memorySize += len;
+        }
+        size += len;
+    }
+
+    private void spill() throws IOException {
+        this.file = Files.createTempFile(TEMP_FILE_PREFIX, ".out");
+        this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer buffer = ByteBuffer.wrap(memory, 0, memorySize);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        this.memory = null;
+        this.memorySize = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * @return {@code true} if the content was moved to a temporary file
+     */
+    synchronized boolean isSpilled() {
+        return file != null;
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * @param charset the charset of the content
+     * @return the content as a String, materializes the whole content on the heap
+     * @throws IOException if the temporary file could not be read
+     */
+    synchronized String toString(Charset charset) throws IOException {
+        if (file == null) {
+            return new String(memory, 0, memorySize, charset);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Output of " + size + " bytes is too large for a String.");
+        }
+        return getCharSequence(charset).toString();
+    }
+
+    /**
+     * Reads the content at the given position, without moving the position at which it is written.
+     *
+     * @param position the position to read at
+     * @param b the array to read into
+     * @param off the offset in the array
+     * @param len the maximum number of bytes to read
+     * @return the number of bytes read, -1 if the position is at the end of the content
+     * @throws IOException if the temporary file could not be read
+     */
+    synchronized int read(long position, byte[] b, int off, int len) throws IOException {
+        if (position >= size) {
+            return -1;
+        }
+        int toRead = (int) Math.min(len, size - position);
+        if (file == null) {
+            System.arraycopy(memory, (int) position, b, off, toRead);
+            return toRead;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(b, off, toRead);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position() - off) < 0) {
+                break;
+            }
+        }
+        return buffer.position() - off;
+    }
+
+    /**
+     * @return a stream over the content, memory-mapped if the content was moved to a temporary file
+     * @throws IOException if the temporary file could not be mapped
+     */
+    synchronized InputStream getInputStream() throws IOException {
+        if (file == null) {
+            return new ByteArrayInputStream(memory, 0, memorySize);
+        }
+        return new MappedInputStream(file, size);
+    }
+
+    /**
+     * Returns the content as a {@link CharSequence}. If the content was moved to a temporary file and it is ASCII in
+     * an ASCII compatible charset (the usual output of a CLI), the sequence is a view of the memory-mapped file that
+     * decodes each byte when it is read. Otherwise the content is decoded to a second temporary file once, which is
+     * then memory-mapped: a {@link CharSequence} needs random access to its chars, which a charset of variable length
+     * does not allow without decoding all the chars before.
+     *
+     * @param charset the charset of the content
+     * @return the content as a {@link CharSequence}
+     * @throws IOException if the temporary files could not be written or mapped
+     */
+    synchronized CharSequence getCharSequence(Charset charset) throws IOException {
+        if (file == null) {
+            return new String(memory, 0, memorySize, charset);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Output of " + size + " bytes is too large to be mapped.");
+        }
+        if (isAsciiCompatible(charset)) {
+            ByteBuffer bytes = map();
+            if (StandardCharsets.ISO_8859_1.equals(charset)
+                    || isAscii(bytes)) {
+                return new ByteCharSequence(bytes);
+            }
+        }
+        if (charsFile == null
+                || !charset.equals(charsFileCharset)) {
+            deleteCharsFile();
+            this.charsFile = decodeToFile(charset);
+            this.charsFileCharset = charset;
+        }
+        try (FileChannel chars = FileChannel.open(charsFile, StandardOpenOption.READ)) {
+            if (chars.size() > Integer.MAX_VALUE) {
+                throw new IOException("Output of " + size + " bytes is too large to be mapped.");
+            }
+            return chars.map(FileChannel.MapMode.READ_ONLY, 0, chars.size()).asCharBuffer();
+        }
+    }
+
+    private ByteBuffer map() throws IOException {
+        try (FileChannel bytes = FileChannel.open(file, StandardOpenOption.READ)) {
+            return bytes.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * @return {@code true} if the bytes 0-127 of the given charset are the ASCII chars
+     */
+    private static boolean isAsciiCompatible(Charset charset) {
+        return StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset);
+    }
+
+    private static boolean isAscii(ByteBuffer bytes) {
+        for (int i = 0; i < bytes.limit(); i++) {
+            if (bytes.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Path decodeToFile(Charset charset) throws IOException {
+        Path decoded = Files.createTempFile(TEMP_FILE_PREFIX, ".chars");
+        char[] buffer = new char[8192];
+        // UTF-16BE is what a CharBuffer view of a mapped (big endian) ByteBuffer reads
+        try (Reader reader = new InputStreamReader(new MappedInputStream(file, size), charset);
+             Writer writer = Channels.newWriter(FileChannel.open(decoded, StandardOpenOption.WRITE), StandardCharsets.UTF_16BE)) {
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                writer.write(buffer, 0, read);
+            }
+        }
+        return decoded;
+    }
+
+    /**
+     * Deletes the temporary files.
+     */
+    synchronized void dispose() {
+        try {
+            close();
+        } catch (IOException e) {
+            // swallow
+        }
+        delete(file);
+        deleteCharsFile();
+        this.memory = null;
+    }
+
+    private void deleteCharsFile() {
+        delete(charsFile);
+        this.charsFile = null;
+    }
+
+    private static void delete(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // mapped files cannot be deleted on windows until the mapping is garbage collected
+            path.toFile().deleteOnExit();
+        }
+    }
+
+    /**
+     * A {@link CharSequence} of the bytes of an ASCII content, each byte is one char.
+     */
+    private static class ByteCharSequence implements CharSequence {
+        private final ByteBuffer bytes;
+
+        private ByteCharSequence(ByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int length() {
+            return bytes.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes.get(index) & 0xff);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0
+                    || end > length()
+                    || start > end) {
+                throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length());
+            }
+            return new ByteCharSequence(bytes.duplicate().position(start).limit(end).slice());
+        }
+
+        @Override
+        public String toString() {
+            byte[] chars = new byte[length()];
+            bytes.duplicate().get(chars);
+            return new String(chars, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    /**
+     * Reads a file through memory mappings of at most {@value #SEGMENT_SIZE} bytes.
+     */
+    private static class MappedInputStream extends InputStream {
+        private static final long SEGMENT_SIZE = 1L << 30;
+
+        private final Path file;
+        private final long size;
+        private long segmentStart = 0;
+        private MappedByteBuffer segment;
+
+        private MappedInputStream(Path file, long size) {
+            this.file = file;
+            this.size = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!ensureSegment()) {
+                return -1;
+            }
+            return segment.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!ensureSegment()) {
+                return -1;
+            }
+            int read = Math.min(len, segment.remaining());
+            segment.get(b, off, read);
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return segment == null ? 0 : segment.remaining();
+        }
+
+        private boolean ensureSegment() throws IOException {
+            if (segment != null
+                    && segment.hasRemaining()) {
+                return true;
+            }
+            if (segment != null) {
+                segmentStart += segment.capacity();
+            }
+            if (segmentStart >= size) {
+                return false;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                this.segment = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart,
+                        Math.min(SEGMENT_SIZE, size - segmentStart));
+            }
+            return true;
+        }
+    }
+}
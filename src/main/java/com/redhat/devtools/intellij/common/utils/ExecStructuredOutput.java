@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Parses the json or yaml that a process outputs while it is being read, ex. {@code oc get pods -o json}, and hands
+ * the items over one by one without holding the whole output. An item is:
+ * <ul>
+ *     <li>each element of the {@code items} array of a list, ex. {@code kind: List}</li>
+ *     <li>each element of a top level array</li>
+ *     <li>each other document, yaml streams may hold several documents</li>
+ * </ul>
+ * The format is detected from the first character: json if it is {@code {} or {@code [}, yaml otherwise.
+ */
+class ExecStructuredOutput {
+
+    private static final String ITEMS = "items";
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
+
+    @FunctionalInterface
+    interface Sink {
+        void accept(JsonNode item) throws IOException;
+    }
+
+    private ExecStructuredOutput() {
+    }
+
+    static <T> T convert(JsonNode item, Class<T> type) throws IOException {
+        return JSON_MAPPER.treeToValue(item, type);
+    }
+
+    /**
+     * Parses the given stream and hands the items over to the given sink as soon as they are read.
+     *
+     * @param stream the stream to parse
+     * @param sink the sink for the items
+     * @return the number of items
+     * @throws IOException if the stream could not be read or parsed
+     */
+    static int parse(InputStream stream, Sink sink) throws IOException {
+        BufferedInputStream input = new BufferedInputStream(stream);
+        ObjectMapper mapper = isJson(input) ? JSON_MAPPER : YAML_MAPPER;
+        JsonFactory factory = mapper.getFactory();
+        int count = 0;
+        try (JsonParser parser = factory.createParser(input)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.START_ARRAY) {
+                    count += parseArray(parser, sink);
+                } else if (token == JsonToken.START_OBJECT) {
+                    count += parseObject(parser, mapper, sink);
+                } else if (token.isScalarValue()
+                        && token != JsonToken.VALUE_NULL) {
+                    sink.accept(parser.readValueAsTree());
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int parseArray(JsonParser parser, Sink sink) throws IOException {
+        int count = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            sink.accept(parser.readValueAsTree());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Builds the fields of the object, the elements of its {@code items} array are handed over while they are read
+     * instead. The object itself is handed over only if it has no {@code items} array.
+     */
+    private static int parseObject(JsonParser parser, ObjectMapper mapper, Sink sink) throws IOException {
+        ObjectNode object = mapper.createObjectNode();
+        int count = 0;
+        boolean hasItems = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (ITEMS.equals(name)
+                    && value == JsonToken.START_ARRAY) {
+                hasItems = true;
+                count += parseArray(parser, sink);
+            } else {
+                object.set(name, parser.readValueAsTree());
+            }
+        }
+        if (!hasItems) {
+            sink.accept(object);
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean isJson(BufferedInputStream input) throws IOException {
+        input.mark(1024);
+        try {
+            int read;
+            for (int i = 0; i < 1024 && (read = input.read()) != -1; i++) {
+                if (!Character.isWhitespace(read)) {
+                    return read == '{' || read == '[';
+                }
+            }
+            return false;
+        } finally {
+            input.reset();
+        }
+    }
+}
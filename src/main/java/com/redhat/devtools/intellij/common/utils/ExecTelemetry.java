@@ -0,0 +1,435 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.execution.process.ProcessAdapter;
+import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessListener;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.Key;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Records where the time goes when {@link ExecHelper} executes a command: the time spent queued in
+ * {@link ExecScheduler}, the time to spawn the process, the time to its first output, the total duration, the
+ * amount of output and the exit code. Each execution is handed over to the registered {@link Listener}s and added
+ * to a rolling histogram of the durations per executable that covers the last {@value #WINDOW_MINUTES} minutes.
+ * <pre>
+ *     ExecTelemetry.getInstance().addListener(record -> LOG.info(record.toString()));
+ *     Duration p99 = ExecTelemetry.getInstance().getHistogram("oc").getPercentile(99);
+ * </pre>
+ */
+public class ExecTelemetry {
+
+    private static final Logger LOG = Logger.getInstance(ExecTelemetry.class);
+
+    public static final int WINDOW_MINUTES = 10;
+
+    public enum Mode {
+        EXECUTE,
+        RESULT,
+        STREAMING,
+        TERMINAL,
+        UI
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        void onExecuted(Record record);
+    }
+
+    private static final ExecTelemetry INSTANCE = new ExecTelemetry(System::nanoTime);
+
+    private static final ThreadLocal<Long> QUEUE_WAIT = new ThreadLocal<>();
+
+    public static ExecTelemetry getInstance() {
+        return INSTANCE;
+    }
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    ExecTelemetry(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @param executable the executable, the name or the path to it
+     * @return the histogram of the durations of the given executable
+     */
+    public Histogram getHistogram(String executable) {
+        return histograms.computeIfAbsent(ExecScheduler.getKey(executable), key -> new Histogram(clock));
+    }
+
+    /**
+     * @return the executables that were executed so far
+     */
+    public Set<String> getExecutables() {
+        return new TreeSet<>(histograms.keySet());
+    }
+
+    /**
+     * @return a line with the count and percentiles of the durations for each executable
+     */
+    public String dump() {
+        StringBuilder builder = new StringBuilder();
+        for (String executable : getExecutables()) {
+            builder.append(executable).append(": ").append(histograms.get(executable)).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Sets the time that the execution that is about to start on the calling thread spent queued.
+     */
+    static void setQueueWait(long nanos) {
+        QUEUE_WAIT.set(nanos);
+    }
+
+    static void clearQueueWait() {
+        QUEUE_WAIT.remove();
+    }
+
+    Recorder start(Mode mode, String executable) {
+        Long queueWait = QUEUE_WAIT.get();
+        return new Recorder(mode, executable, queueWait == null ? 0 : queueWait);
+    }
+
+    private void record(Record record) {
+        getHistogram(record.executable).add(record.duration);
+        for (Listener listener : listeners) {
+            try {
+                listener.onExecuted(record);
+            } catch (RuntimeException e) {
+                LOG.warn("Could not notify telemetry listener of " + record.executable, e);
+            }
+        }
+    }
+
+    /**
+     * Collects the timings of a single execution, from the moment it was requested until the process terminated.
+     */
+    class Recorder {
+        private final Mode mode;
+        private final String executable;
+        private final long queueWait;
+        private final long start = clock.getAsLong();
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile long spawned = -1;
+        private volatile long firstByte = -1;
+
+        private Recorder(Mode mode, String executable, long queueWait) {
+            this.mode = mode;
+            this.executable = executable;
+            this.queueWait = queueWait;
+        }
+
+        void spawned() {
+            if (spawned < 0) {
+                spawned = clock.getAsLong();
+            }
+        }
+
+        void read(long bytes) {
+            if (firstByte < 0
+                    && bytes > 0) {
+                firstByte = clock.getAsLong();
+            }
+            bytesRead.addAndGet(bytes);
+        }
+
+        /**
+         * @return a stream that counts the bytes written to the given stream
+         */
+        OutputStream count(OutputStream stream) {
+            return new FilterOutputStream(stream) {
+                @Override
+                public void write(int b) throws IOException {
+                    read(1);
+                    out.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    read(len);
+                    out.write(b, off, len);
+                }
+            };
+        }
+
+        /**
+         * @return a stream that counts the bytes read from the given stream
+         */
+        InputStream count(InputStream stream) {
+            return new FilterInputStream(stream) {
+                @Override
+                public int read() throws IOException {
+                    int read = in.read();
+                    if (read != -1) {
+                        Recorder.this.read(1);
+                    }
+                    return read;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int read = in.read(b, off, len);
+                    if (read > 0) {
+                        Recorder.this.read(read);
+                    }
+                    return read;
+                }
+            };
+        }
+
+        /**
+         * @return a listener that counts the characters that the process outputs and finishes once it terminated
+         */
+        ProcessListener newProcessListener() {
+            return new ProcessAdapter() {
+                @Override
+                public void onTextAvailable(@NotNull ProcessEvent event, @NotNull Key outputType) {
+                    read(event.getText().length());
+                }
+
+                @Override
+                public void processTerminated(@NotNull ProcessEvent event) {
+                    finish(event.getExitCode(), null);
+                }
+            };
+        }
+
+        /**
+         * Records the execution, only the first invocation has an effect.
+         *
+         * @param exitCode the exit code, {@code null} if unknown
+         * @param error the error that the execution failed with, {@code null} if none
+         */
+        void finish(@Nullable Integer exitCode, @Nullable Throwable error) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            long end = clock.getAsLong();
+            record(new Record(mode, executable, queueWait,
+                    spawned < 0 ? -1 : spawned - start,
+                    firstByte < 0 ? -1 : firstByte - start,
+                    end - start, bytesRead.get(), exitCode, error));
+        }
+    }
+
+    /**
+     * The timings of a single execution. Times are measured from the moment the execution was requested, after it
+     * left the queue of {@link ExecScheduler}.
+     */
+    public static class Record {
+        private final Mode mode;
+        private final String executable;
+        private final long queueWait;
+        private final long spawnLatency;
+        private final long timeToFirstByte;
+        private final long duration;
+        private final long bytesRead;
+        private final @Nullable Integer exitCode;
+        private final @Nullable Throwable error;
+
+        Record(Mode mode, String executable, long queueWait, long spawnLatency, long timeToFirstByte, long duration,
+               long bytesRead, @Nullable Integer exitCode, @Nullable Throwable error) {
+            this.mode = mode;
+            this.executable = executable;
+            this.queueWait = queueWait;
+            this.spawnLatency = spawnLatency;
+            this.timeToFirstByte = timeToFirstByte;
+            this.duration = duration;
+            this.bytesRead = bytesRead;
+            this.exitCode = exitCode;
+            this.error = error;
+        }
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public String getExecutable() {
+            return executable;
+        }
+
+        public Duration getQueueWait() {
+            return Duration.ofNanos(queueWait);
+        }
+
+        /**
+         * @return the time until the process was started, {@code null} if it could not be started
+         */
+        public @Nullable Duration getSpawnLatency() {
+            return spawnLatency < 0 ? null : Duration.ofNanos(spawnLatency);
+        }
+
+        /**
+         * @return the time until the process output something, {@code null} if it did not output anything
+         */
+        public @Nullable Duration getTimeToFirstByte() {
+            return timeToFirstByte < 0 ? null : Duration.ofNanos(timeToFirstByte);
+        }
+
+        public Duration getDuration() {
+            return Duration.ofNanos(duration);
+        }
+
+        /**
+         * @return the number of bytes that the process output. Terminal and UI executions decode the output before
+         * it can be observed, characters are counted for those.
+         */
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        /**
+         * @return the exit code, {@code null} if unknown
+         */
+        public @Nullable Integer getExitCode() {
+            return exitCode;
+        }
+
+        public @Nullable Throwable getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return mode + " " + executable
+                    + ": duration " + TimeUnit.NANOSECONDS.toMillis(duration) + " ms"
+                    + ", queued " + TimeUnit.NANOSECONDS.toMillis(queueWait) + " ms"
+                    + ", spawn " + (spawnLatency < 0 ? "-" : TimeUnit.NANOSECONDS.toMillis(spawnLatency) + " ms")
+                    + ", first byte " + (timeToFirstByte < 0 ? "-" : TimeUnit.NANOSECONDS.toMillis(timeToFirstByte) + " ms")
+                    + ", " + bytesRead + " bytes"
+                    + ", exit code " + (exitCode == null ? "-" : exitCode)
+                    + (error == null ? "" : ", error " + error.getMessage());
+        }
+    }
+
+    /**
+     * A histogram of durations over a rolling window of {@value #WINDOW_MINUTES} minutes. Durations are counted in
+     * buckets whose bounds are powers of 2 milliseconds, percentiles are the upper bound of the bucket that holds
+     * them.
+     */
+    public static class Histogram {
+        private static final int BUCKETS = 24;
+        private static final long SLICE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+        private final LongSupplier clock;
+        private final long[][] counts = new long[WINDOW_MINUTES][BUCKETS];
+        private final long[] sliceIds = new long[WINDOW_MINUTES];
+
+        private Histogram(LongSupplier clock) {
+            this.clock = clock;
+        }
+
+        private synchronized void add(long durationNanos) {
+            long sliceId = clock.getAsLong() / SLICE_NANOS;
+            int slice = (int) Math.floorMod(sliceId, WINDOW_MINUTES);
+            if (sliceIds[slice] != sliceId) {
+                sliceIds[slice] = sliceId;
+                counts[slice] = new long[BUCKETS];
+            }
+            counts[slice][getBucket(durationNanos)]++;
+        }
+
+        private static int getBucket(long durationNanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+            // bucket 0 holds durations < 1 ms, bucket i durations in [2^(i-1), 2^i) ms
+            return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis));
+        }
+
+        private synchronized long[] getCounts() {
+            long current = clock.getAsLong() / SLICE_NANOS;
+            long[] total = new long[BUCKETS];
+            for (int slice = 0; slice < WINDOW_MINUTES; slice++) {
+                if (current - sliceIds[slice] < WINDOW_MINUTES) {
+                    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                        total[bucket] += counts[slice][bucket];
+                    }
+                }
+            }
+            return total;
+        }
+
+        /**
+         * @return the number of executions within the window
+         */
+        public long getCount() {
+            long count = 0;
+            for (long bucket : getCounts()) {
+                count += bucket;
+            }
+            return count;
+        }
+
+        /**
+         * @param percentile the percentile, between 0 and 100
+         * @return the upper bound of the duration of the given percentile of executions within the window
+         */
+        public Duration getPercentile(double percentile) {
+            long[] counts = getCounts();
+            long count = 0;
+            for (long bucket : counts) {
+                count += bucket;
+            }
+            if (count == 0) {
+                return Duration.ZERO;
+            }
+            long rank = (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100);
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen += counts[bucket];
+                if (seen >= Math.max(1, rank)) {
+                    return Duration.ofMillis(1L << bucket);
+                }
+            }
+            return Duration.ofMillis(1L << (BUCKETS - 1));
+        }
+
+        @Override
+        public String toString() {
+            return getCount() + " executions"
+                    + ", p50 <" + getPercentile(50).toMillis() + " ms"
+                    + ", p90 <" + getPercentile(90).toMillis() + " ms"
+                    + ", p99 <" + getPercentile(99).toMillis() + " ms";
+        }
+    }
+}
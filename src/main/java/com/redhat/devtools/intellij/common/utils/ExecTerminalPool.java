@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.execution.executors.DefaultRunExecutor;
+import com.intellij.execution.ui.RunContentDescriptor;
+import com.intellij.execution.ui.RunContentManager;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.Key;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The terminal consoles of a project that {@link ExecHelper} reuses instead of creating a new terminal widget for
+ * each command. A command is attached to an idle console with the same title if there is one, see
+ * {@link CommonTerminalExecutionConsole#attachToProcess(com.intellij.execution.process.ProcessHandler)}.
+ * The number of consoles is capped, the least recently used idle consoles are closed once the cap is reached and
+ * idle consoles are closed after a while. The pool also numbers the tab titles of a project.
+ */
+public class ExecTerminalPool implements Disposable {
+
+    public static final int DEFAULT_MAX_SIZE = 8;
+
+    static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final Key<ExecTerminalPool> KEY = Key.create("com.redhat.devtools.intellij.common.terminal.pool");
+    private static final Object INSTANCE_LOCK = new Object();
+    private static final long SWEEP_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Project project;
+    private final Map<CommonTerminalExecutionConsole, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile int maxSize = DEFAULT_MAX_SIZE;
+    private ScheduledFuture<?> sweep;
+    private boolean disposed = false;
+
+    public static ExecTerminalPool getInstance(Project project) {
+        synchronized (INSTANCE_LOCK) {
+            ExecTerminalPool pool = project.getUserData(KEY);
+            if (pool == null) {
+                pool = new ExecTerminalPool(project);
+                project.putUserData(KEY, pool);
+                Disposer.register(project, pool);
+            }
+            return pool;
+        }
+    }
+
+    private ExecTerminalPool(Project project) {
+        this.project = project;
+    }
+
+    /**
+     * Sets the maximum number of consoles in the pool. Idle consoles beyond it are closed.
+     *
+     * @param maxSize the maximum number of consoles
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        sweep(System.currentTimeMillis());
+    }
+
+    /**
+     * Returns an idle console with the given title, or a new one if there is none. The console is busy until it is
+     * {@link #release(CommonTerminalExecutionConsole) released}.
+     *
+     * @param title the title of the console, a number is appended to it for the tab
+     * @return the console to attach the process to
+     */
+    public CommonTerminalExecutionConsole acquire(String title) {
+        List<Entry> evicted;
+        CommonTerminalExecutionConsole console = null;
+        synchronized (this) {
+            for (Entry entry : entries.values()) {
+                if (!entry.busy
+                        && !entry.console.isDisposed()
+                        && entry.title.equals(title)) {
+                    console = entry.console;
+                }
+            }
+            if (console == null) {
+                console = new CommonTerminalExecutionConsole(project, null, nextTabTitle(title));
+                entries.put(console, new Entry(console, title));
+            }
+            Entry entry = entries.get(console);
+            entry.busy = true;
+            evicted = evict(System.currentTimeMillis());
+            scheduleSweep();
+        }
+        close(evicted);
+        return console;
+    }
+
+    /**
+     * Marks the given console as idle, it may be reused for the next command with the same title.
+     *
+     * @param console the console to release
+     */
+    public synchronized void release(CommonTerminalExecutionConsole console) {
+        Entry entry = entries.get(console);
+        if (entry != null) {
+            entry.busy = false;
+            entry.lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the title with the next number for the given title, ex. {@code oc logs(3)}. The tabs that are shown
+     * are scanned on each call, the numbers of the tabs that were closed are thus reused.
+     *
+     * @param title the title
+     * @return the title with a number appended
+     */
+    public String nextTabTitle(String title) {
+        List<String> shownTitles = new ArrayList<>();
+        for (RunContentDescriptor descriptor : RunContentManager.getInstance(project).getAllDescriptors()) {
+            shownTitles.add(descriptor.getDisplayName());
+        }
+        return nextTabTitle(title, shownTitles);
+    }
+
+    /**
+     * @param title the title
+     * @param shownTitles the titles of the tabs that are shown
+     * @return the given title with the number after the highest one among the shown tabs with the same title
+     */
+    static String nextTabTitle(String title, Collection<String> shownTitles) {
+        Pattern pattern = Pattern.compile(Pattern.quote(title) + "\\(([0-9]+)\\)");
+        int max = shownTitles.stream()
+                .mapToInt(shownTitle -> {
+                    Matcher m = pattern.matcher(shownTitle);
+                    if (m.find()) {
+                        return Integer.parseInt(m.group(1));
+                    }
+                    return -1;
+                }).max().orElse(0);
+        return title + "(" + (max + 1) + ")";
+    }
+
+    /**
+     * Closes the consoles that are idle for too long and the least recently used idle consoles beyond the maximum
+     * size.
+     *
+     * @param now the current time in milliseconds
+     */
+    void sweep(long now) {
+        close(evict(now));
+    }
+
+    /**
+     * Removes the consoles that were closed by the user, that are idle for too long and the least recently used
+     * idle consoles beyond the maximum size.
+     *
+     * @return the entries to close
+     */
+    private List<Entry> evict(long now) {
+        List<Entry> evicted = new ArrayList<>();
+        synchronized (this) {
+            int size = entries.size();
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.console.isDisposed()) {
+                    iterator.remove();
+                    size--;
+                } else if (!entry.busy
+                        && (size > maxSize
+                        || now - entry.lastUsed > IDLE_TIMEOUT_MILLIS)) {
+                    iterator.remove();
+                    evicted.add(entry);
+                    size--;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    private void close(List<Entry> evicted) {
+        if (evicted.isEmpty()) {
+            return;
+        }
+        ApplicationManager.getApplication().invokeLater(() -> {
+            if (project.isDisposed()) {
+                return;
+            }
+            RunContentManager manager = RunContentManager.getInstance(project);
+            List<Entry> remaining = new ArrayList<>(evicted);
+            for (RunContentDescriptor descriptor : manager.getAllDescriptors()) {
+                Iterator<Entry> iterator = remaining.iterator();
+                while (iterator.hasNext()) {
+                    if (descriptor.getExecutionConsole() == iterator.next().console) {
+                        // disposes the console with the tab
+                        manager.removeRunContent(DefaultRunExecutor.getRunExecutorInstance(), descriptor);
+                        iterator.remove();
+                    }
+                }
+            }
+            // consoles whose tab was not shown yet
+            for (Entry entry : remaining) {
+                if (!entry.console.isDisposed()) {
+                    Disposer.dispose(entry.console);
+                }
+            }
+        });
+    }
+
+    private synchronized void scheduleSweep() {
+        if (sweep != null
+                || disposed) {
+            return;
+        }
+        sweep = ExecHelper.executeAfter(() -> {
+            synchronized (this) {
+                sweep = null;
+            }
+            sweep(System.currentTimeMillis());
+            synchronized (this) {
+                if (!entries.isEmpty()) {
+                    scheduleSweep();
+                }
+            }
+        }, SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void dispose() {
+        disposed = true;
+        if (sweep != null) {
+            sweep.cancel(false);
+            sweep = null;
+        }
+        entries.clear();
+        project.putUserData(KEY, null);
+    }
+
+    private static class Entry {
+        private final CommonTerminalExecutionConsole console;
+        private final String title;
+        private boolean busy = false;
+        private long lastUsed = System.currentTimeMillis();
+
+        private Entry(CommonTerminalExecutionConsole console, String title) {
+            this.console = console;
+            this.title = title;
+        }
+    }
+}
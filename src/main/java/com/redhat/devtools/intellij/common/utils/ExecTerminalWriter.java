@@ -0,0 +1,294 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Writes the text that is printed to a {@link CommonTerminalExecutionConsole} to its terminal data stream. The text
+ * of all print calls within a frame is coalesced and appended at once, at most {@value #MAX_PENDING_CHARS} characters
+ * are appended without waiting for the frame to end. The escape sequences for colors are cached.
+ * While the writer is paused nothing is appended, the text is deferred instead. Writers that may block wait once
+ * {@value #MAX_DEFERRED_CHARS} characters are deferred, which stops the reading of the process output until the
+ * writer is resumed. Writers that must not block, like the thread that reads the output of multiplexed processes,
+ * check {@link #isFull()} instead and stop reading by themselves.
+ */
+class ExecTerminalWriter {
+
+    private static final Logger LOG = Logger.getInstance(ExecTerminalWriter.class);
+
+    static final long FLUSH_INTERVAL_MILLIS = 16;
+    static final int MAX_PENDING_CHARS = 64 * 1024;
+    static final int MAX_DEFERRED_CHARS = 4 * 1024 * 1024;
+
+    private static final long BLOCK_CHECK_MILLIS = 100;
+
+    private static final char ESC = 27;
+    static final String RESET_FOREGROUND = ESC + "[39m";
+
+    private static final Map<Color, String> FOREGROUND_SEQUENCES = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    interface Sink {
+        void append(@NotNull String text) throws IOException;
+    }
+
+    private final Sink sink;
+    private final long flushIntervalMillis;
+    private final Object flushLock = new Object();
+    private final StringBuilder pending = new StringBuilder();
+    private final List<Runnable> whenFlushed = new ArrayList<>();
+    private boolean lastCR = false;
+    private boolean paused = false;
+    private ScheduledFuture<?> flush;
+
+    ExecTerminalWriter(Sink sink) {
+        this(sink, FLUSH_INTERVAL_MILLIS);
+    }
+
+    ExecTerminalWriter(Sink sink, long flushIntervalMillis) {
+        this.sink = sink;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Writes the given text in the given color.
+     *
+     * @param text the text to write
+     * @param foreground the color of the text, the default color if {@code null}
+     * @param convertToCRLF if line separators should be converted to {@code \r\n}
+     */
+    void write(@NotNull String text, @Nullable Color foreground, boolean convertToCRLF) {
+        write(text, foreground, convertToCRLF, false);
+    }
+
+    /**
+     * Writes the given text in the given color. Waits while the writer is paused and the deferred text is at its
+     * maximum if the given flag is set. The UI thread must not wait since it resumes the writer.
+     *
+     * @param text the text to write
+     * @param foreground the color of the text, the default color if {@code null}
+     * @param convertToCRLF if line separators should be converted to {@code \r\n}
+     * @param mayBlock if the calling thread may wait for the writer to be resumed
+     */
+    void write(@NotNull String text, @Nullable Color foreground, boolean convertToCRLF, boolean mayBlock) {
+        write(text, foreground, convertToCRLF, () -> mayBlock);
+    }
+
+    /**
+     * Writes the given text in the given color. Waits while the writer is paused and the deferred text is at its
+     * maximum as long as the given condition holds. The condition is checked again every
+     * {@value #BLOCK_CHECK_MILLIS} ms while waiting, a reader thread thus stops waiting once its process terminated.
+     *
+     * @param text the text to write
+     * @param foreground the color of the text, the default color if {@code null}
+     * @param convertToCRLF if line separators should be converted to {@code \r\n}
+     * @param mayBlock if the calling thread may (still) wait for the writer to be resumed
+     */
+    void write(@NotNull String text, @Nullable Color foreground, boolean convertToCRLF, @NotNull BooleanSupplier mayBlock) {
+        if (text.isEmpty()) {
+            return;
+        }
+        boolean flushNow;
+        synchronized (this) {
+            while (isFull()
+                    && mayBlock.getAsBoolean()) {
+                try {
+                    wait(BLOCK_CHECK_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (foreground != null) {
+                pending.append(encodeForeground(foreground));
+            }
+            if (convertToCRLF) {
+                lastCR = appendCRLF(pending, text, lastCR);
+            } else {
+                pending.append(text);
+            }
+            if (foreground != null) {
+                pending.append(RESET_FOREGROUND);
+            }
+            flushNow = !paused
+                    && pending.length() >= MAX_PENDING_CHARS;
+            if (!flushNow
+                    && !paused
+                    && flush == null) {
+                flush = ExecExecutors.schedule(this::flush, flushIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (flushNow) {
+            flush();
+        }
+    }
+
+    /**
+     * Appends the pending text to the sink unless the writer is paused.
+     */
+    void flush() {
+        synchronized (flushLock) {
+            String text;
+            synchronized (this) {
+                if (flush != null) {
+                    flush.cancel(false);
+                    flush = null;
+                }
+                if (paused
+                        || pending.length() == 0) {
+                    return;
+                }
+                text = pending.toString();
+                pending.setLength(0);
+                notifyAll();
+            }
+            try {
+                sink.append(text);
+            } catch (IOException e) {
+                LOG.info(e);
+            }
+        }
+        runWhenFlushed();
+    }
+
+    /**
+     * Pauses or resumes the writer. The deferred text is appended once the writer is resumed.
+     *
+     * @param paused {@code true} to pause
+     */
+    void setPaused(boolean paused) {
+        synchronized (this) {
+            this.paused = paused;
+            notifyAll();
+        }
+        if (!paused) {
+            flush();
+        }
+    }
+
+    synchronized boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * @return {@code true} if the writer is paused and the deferred text is at its maximum
+     */
+    synchronized boolean isFull() {
+        return paused
+                && pending.length() >= MAX_DEFERRED_CHARS;
+    }
+
+    /**
+     * @return {@code true} if there is text that was not appended yet
+     */
+    synchronized boolean hasPending() {
+        return pending.length() > 0;
+    }
+
+    /**
+     * Runs the given runnable once there is no pending text, right away if there is none.
+     *
+     * @param runnable the runnable to run
+     */
+    void whenFlushed(@NotNull Runnable runnable) {
+        synchronized (this) {
+            if (pending.length() > 0) {
+                whenFlushed.add(runnable);
+                return;
+            }
+        }
+        runnable.run();
+    }
+
+    /**
+     * Discards the pending text.
+     */
+    void clear() {
+        synchronized (this) {
+            pending.setLength(0);
+            lastCR = false;
+            notifyAll();
+        }
+        runWhenFlushed();
+    }
+
+    private void runWhenFlushed() {
+        List<Runnable> runnables;
+        synchronized (this) {
+            if (pending.length() > 0
+                    || whenFlushed.isEmpty()) {
+                return;
+            }
+            runnables = new ArrayList<>(whenFlushed);
+            whenFlushed.clear();
+        }
+        runnables.forEach(Runnable::run);
+    }
+
+    static String encodeForeground(@NotNull Color color) {
+        return FOREGROUND_SEQUENCES.computeIfAbsent(color, key ->
+                ESC + "[38;2;" + key.getRed() + ";" + key.getGreen() + ";" + key.getBlue() + "m");
+    }
+
+    /**
+     * Appends the given text with its line separators converted to {@code \r\n}, like ConsoleViewImpl does, in a
+     * single pass. A {@code \r} at the end is kept as is since the {@code \n} may follow in the next text, and a
+     * {@code \n} at the start is kept as is if the previous text ended with {@code \r}.
+     *
+     * @param builder the builder to append to
+     * @param text the text to convert
+     * @param lastCR if the previous text ended with {@code \r}
+     * @return {@code true} if the given text ends with {@code \r}
+     */
+    static boolean appendCRLF(StringBuilder builder, String text, boolean lastCR) {
+        int length = text.length();
+        int start = 0;
+        if (lastCR
+                && length > 0
+                && text.charAt(0) == '\n') {
+            builder.append('\n');
+            start = 1;
+        }
+        int i = start;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c != '\r'
+                    && c != '\n') {
+                i++;
+                continue;
+            }
+            builder.append(text, start, i);
+            if (c == '\r'
+                    && i == length - 1) {
+                builder.append('\r');
+                return true;
+            }
+            builder.append("\r\n");
+            i += (c == '\r' && text.charAt(i + 1) == '\n') ? 2 : 1;
+            start = i;
+        }
+        builder.append(text, start, length);
+        return false;
+    }
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces the text that is appended on a background thread and publishes it to a consumer in the UI thread, at
+ * most a given number of times per second. The consumer receives the text that was appended since the previous
+ * update. At most {@value #MAX_PENDING_CHARS} characters are pending, appending blocks the background thread while
+ * the UI thread is behind so that a chatty process is slowed down rather than filling the memory. The pending text is
+ * published without waiting for the next update once it is {@link #flush() flushed}, ex. when the process terminated.
+ */
+class ExecUIPublisher {
+
+    static final int DEFAULT_MAX_UPDATES_PER_SECOND = 20;
+
+    static final int MAX_PENDING_CHARS = 1024 * 1024;
+
+    private final Consumer<String> consumer;
+    private final Executor ui;
+    private final long intervalNanos;
+    private final StringBuilder pending = new StringBuilder();
+    private boolean scheduled = false;
+    private long lastPublished;
+
+    ExecUIPublisher(Consumer<String> consumer, int maxUpdatesPerSecond) {
+        this(consumer, maxUpdatesPerSecond,
+                runnable -> ApplicationManager.getApplication().invokeLater(runnable, ModalityState.any()));
+    }
+
+    /**
+     * @param consumer the consumer of the text that was appended since the previous update
+     * @param maxUpdatesPerSecond the maximum number of updates per second
+     * @param ui the executor that runs the updates in the UI thread
+     */
+    ExecUIPublisher(Consumer<String> consumer, int maxUpdatesPerSecond, Executor ui) {
+        this.consumer = consumer;
+        this.ui = ui;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxUpdatesPerSecond);
+        this.lastPublished = System.nanoTime() - intervalNanos;
+    }
+
+    /**
+     * Appends the given text, it is published with the next update. Blocks while too much text is pending.
+     *
+     * @param text the text to append
+     * @throws InterruptedException if interrupted while blocked
+     */
+    void append(String text) throws InterruptedException {
+        long delay;
+        synchronized (this) {
+            while (pending.length() > 0
+                    && pending.length() + text.length() > MAX_PENDING_CHARS) {
+                // an update is scheduled while text is pending
+                wait();
+            }
+            pending.append(text);
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+            delay = lastPublished + intervalNanos - System.nanoTime();
+        }
+        if (delay <= 0) {
+            publishInUI();
+        } else {
+            ExecHelper.executeAfter(this::publishInUI, delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Publishes the pending text now instead of with the next update.
+     */
+    void flush() {
+        synchronized (this) {
+            if (pending.length() == 0) {
+                return;
+            }
+        }
+        publishInUI();
+    }
+
+    private void publishInUI() {
+        ui.execute(this::publish);
+    }
+
+    private void publish() {
+        String delta;
+        synchronized (this) {
+            delta = pending.toString();
+            pending.setLength(0);
+            scheduled = false;
+            lastPublished = System.nanoTime();
+            notifyAll();
+        }
+        if (!delta.isEmpty()) {
+            consumer.accept(delta);
+        }
+    }
+}
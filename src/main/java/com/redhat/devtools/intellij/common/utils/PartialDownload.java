@@ -0,0 +1,310 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * The state of a download that was not completed yet. The bytes are written to a {@value #PART_SUFFIX} file next to
+ * the target, the url, the validators (ETag, Last-Modified) and the length of the content are kept in a
+ * {@value #METADATA_SUFFIX} file. A download that was interrupted, by a cancel, a network failure or the IDE being
+ * closed, is resumed with a range request that is conditional on the validators, the server thus sends the whole
+ * content if it changed in the meantime. Segmented downloads keep the position that each segment reached.
+ * The target only appears once the download is committed, it is moved there atomically.
+ */
+class PartialDownload {
+
+    private static final Logger LOG = Logger.getInstance(PartialDownload.class);
+
+    static final String PART_SUFFIX = ".part";
+    static final String METADATA_SUFFIX = ".part.properties";
+
+    private static final String URL = "url";
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String LENGTH = "length";
+    private static final String SEGMENTS = "segments";
+
+    private final Path target;
+    private final Path file;
+    private final Path metadata;
+    private final String url;
+    private final SortedMap<Long, Long> segments = new TreeMap<>();
+    private String etag;
+    private String lastModified;
+    private long length = -1;
+
+    PartialDownload(Path target, String url) {
+        this.target = target;
+        this.file = target.resolveSibling(target.getFileName() + PART_SUFFIX);
+        this.metadata = target.resolveSibling(target.getFileName() + METADATA_SUFFIX);
+        this.url = url;
+        load();
+    }
+
+    private void load() {
+        if (!Files.exists(file)
+                || !Files.exists(metadata)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(metadata)) {
+            properties.load(input);
+            if (!url.equals(properties.getProperty(URL))) {
+                return;
+            }
+            etag = properties.getProperty(ETAG);
+            lastModified = properties.getProperty(LAST_MODIFIED);
+            length = Long.parseLong(properties.getProperty(LENGTH, "-1"));
+            for (String segment : properties.getProperty(SEGMENTS, "").split(",")) {
+                int separator = segment.indexOf(':');
+                if (separator > 0) {
+                    segments.put(Long.parseLong(segment.substring(0, separator)),
+                            Long.parseLong(segment.substring(separator + 1)));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            LOG.debug("Could not load the state of the partial download " + file + ", starting over.", e);
+            etag = null;
+            lastModified = null;
+            length = -1;
+            segments.clear();
+        }
+    }
+
+    /**
+     * @return the file that the bytes are written to
+     */
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return the length of the content or -1 if it is not known
+     */
+    long getLength() {
+        return length;
+    }
+
+    /**
+     * @return the positions that the segments reached, by the offset at which they start
+     */
+    SortedMap<Long, Long> getSegments() {
+        return segments;
+    }
+
+    void setSegment(long start, long position) {
+        segments.put(start, position);
+    }
+
+    /**
+     * @param start the offset at which a segment starts
+     * @return the offset of the last byte of the segment
+     */
+    long getSegmentEnd(long start) {
+        SortedMap<Long, Long> following = segments.tailMap(start + 1);
+        return (following.isEmpty() ? length : following.firstKey()) - 1;
+    }
+
+    /**
+     * Returns if the partial download is of the content with the given validators. Content without validators never
+     * matches, it cannot be resumed.
+     *
+     * @param connection the connection to the content
+     * @return {@code true} if the bytes that were downloaded are of the same content
+     */
+    boolean matches(URLConnection connection) {
+        return hasValidator()
+                && Objects.equals(etag, getStrongETag(connection))
+                && Objects.equals(lastModified, connection.getHeaderField("Last-Modified"))
+                && length == connection.getContentLengthLong();
+    }
+
+    /**
+     * Discards the bytes that were downloaded and starts over with the content of the given connection.
+     *
+     * @param connection the connection to the content
+     * @throws IOException if the partial file could not be deleted
+     */
+    void reset(URLConnection connection) throws IOException {
+        Files.deleteIfExists(file);
+        etag = getStrongETag(connection);
+        lastModified = connection.getHeaderField("Last-Modified");
+        length = connection.getContentLengthLong();
+        segments.clear();
+    }
+
+    /**
+     * Returns the offset at which a single stream resumes. A segmented download resumes after the segments that were
+     * completed from the start.
+     *
+     * @return the offset to resume at, 0 if the download cannot be resumed
+     * @throws IOException if the size of the partial file could not be read
+     */
+    long getResumeOffset() throws IOException {
+        if (!hasValidator()
+                || !Files.exists(file)) {
+            return 0;
+        }
+        if (segments.isEmpty()) {
+            return Files.size(file);
+        }
+        long offset = 0;
+        for (Map.Entry<Long, Long> segment : segments.entrySet()) {
+            if (segment.getKey() > offset) {
+                break;
+            }
+            offset = segment.getValue();
+            if (offset <= getSegmentEnd(segment.getKey())) {
+                break;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Returns if all the bytes of the content were downloaded, ex. if the IDE was closed before the download was
+     * committed. Requesting the range after the last byte would fail with 416 (range not satisfiable).
+     *
+     * @return {@code true} if the partial file holds the whole content
+     * @throws IOException if the size of the partial file could not be read
+     */
+    boolean isComplete() throws IOException {
+        return length > 0
+                && getResumeOffset() == length;
+    }
+
+    /**
+     * Requests the given range, if the content did not change since the partial download was started.
+     *
+     * @param connection the connection to tune
+     * @param start the offset of the first byte
+     * @param end the offset of the last byte or -1 for the rest of the content
+     */
+    void requestRange(URLConnection connection, long start, long end) {
+        if (start == 0
+                && end < 0) {
+            return;
+        }
+        connection.setRequestProperty("Range", "bytes=" + start + "-" + (end < 0 ? "" : String.valueOf(end)));
+        if (hasValidator()) {
+            connection.setRequestProperty("If-Range", etag != null ? etag : lastModified);
+        }
+    }
+
+    /**
+     * Returns if the given connection responded with the range that starts at the given offset.
+     *
+     * @param connection the connection that requested the range
+     * @param start the offset of the first byte of the range
+     * @return {@code true} if the range was sent
+     * @throws IOException if the response could not be read
+     */
+    static boolean isRange(URLConnection connection, long start) throws IOException {
+        if (!(connection instanceof HttpURLConnection)
+                || ((HttpURLConnection) connection).getResponseCode() != HttpURLConnection.HTTP_PARTIAL) {
+            return false;
+        }
+        String contentRange = connection.getHeaderField("Content-Range");
+        return contentRange != null
+                && contentRange.startsWith("bytes " + start + "-");
+    }
+
+    /**
+     * Writes the state of the partial download.
+     *
+     * @throws IOException if the state could not be written
+     */
+    void store() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(URL, url);
+        if (etag != null) {
+            properties.setProperty(ETAG, etag);
+        }
+        if (lastModified != null) {
+            properties.setProperty(LAST_MODIFIED, lastModified);
+        }
+        properties.setProperty(LENGTH, String.valueOf(length));
+        StringBuilder builder = new StringBuilder();
+        segments.forEach((start, position) -> {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(start).append(':').append(position);
+        });
+        properties.setProperty(SEGMENTS, builder.toString());
+        Files.createDirectories(metadata.getParent());
+        try (OutputStream output = Files.newOutputStream(metadata)) {
+            properties.store(output, null);
+        }
+    }
+
+    /**
+     * Moves the completed download to its target and discards its state.
+     *
+     * @throws IOException if the download could not be moved
+     */
+    void commit() throws IOException {
+        move(file, target);
+        Files.deleteIfExists(metadata);
+    }
+
+    /**
+     * Deletes the partial file and its state, the next download starts over.
+     *
+     * @throws IOException if the files could not be deleted
+     */
+    void discard() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(metadata);
+    }
+
+    /**
+     * Moves the given file to the given target atomically if the file system supports it, replacing the target.
+     *
+     * @param source the file to move
+     * @param target the target to move to
+     * @throws IOException if the file could not be moved
+     */
+    static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private boolean hasValidator() {
+        return etag != null
+                || lastModified != null;
+    }
+
+    private static String getStrongETag(URLConnection connection) {
+        String etag = connection.getHeaderField("ETag");
+        // weak validators cannot be used for ranges
+        return etag == null || etag.startsWith("W/") ? null : etag;
+    }
+}
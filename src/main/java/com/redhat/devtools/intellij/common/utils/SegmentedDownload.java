@@ -0,0 +1,292 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.util.io.HttpRequests;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Downloads a file over several connections at once, each of them requesting a range of bytes. The ranges are
+ * written into the file at their position, the file is allocated to its full size first. This makes better use of
+ * links with a high latency than a single stream.
+ * The server is asked for the size of the file and whether it accepts ranges first. Files that are small, from
+ * servers that do not accept ranges or from other than http(s) urls are not downloaded by segments.
+ * The positions that the segments reached are kept in the {@link PartialDownload}, an interrupted download resumes
+ * each segment where it stopped.
+ * The file is hashed while it is downloaded: the bytes from the start of the file up to the first segment that is not
+ * complete are added to the digest as they are written, the following segments thus are hashed once the ones
+ * before them are complete, while they are still in the cache of the file system.
+ * The number of segments can be set with the system property {@value #SEGMENTS_PROPERTY}, 1 disables segments.
+ */
+class SegmentedDownload {
+
+    private static final Logger LOG = Logger.getInstance(SegmentedDownload.class);
+
+    public static final String SEGMENTS_PROPERTY = "com.redhat.devtools.intellij.common.download.segments";
+
+    static final int DEFAULT_SEGMENTS = 4;
+    static final long MIN_SEGMENT_SIZE = 4 * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long HASH_INTERVAL_MILLIS = 50;
+
+    private final String url;
+    private final PartialDownload part;
+    private final ProgressIndicator indicator;
+    private final MessageDigest digest;
+    private final int segments;
+
+    SegmentedDownload(String url, PartialDownload part, ProgressIndicator indicator, MessageDigest digest) {
+        this(url, part, indicator, digest, Integer.getInteger(SEGMENTS_PROPERTY, DEFAULT_SEGMENTS));
+    }
+
+    /**
+     * @param url the url of the file
+     * @param part the partial download to write the file to
+     * @param indicator the indicator to report progress to
+     * @param digest the digest to hash the whole file with or {@code null}
+     * @param segments the number of segments
+     */
+    SegmentedDownload(String url, PartialDownload part, ProgressIndicator indicator, MessageDigest digest, int segments) {
+        this.url = url;
+        this.part = part;
+        this.indicator = indicator;
+        this.digest = digest;
+        this.segments = segments;
+    }
+
+    /**
+     * Downloads the file by segments if the server supports it. The digest holds the hash of the whole file if it
+     * was downloaded, it is reset otherwise.
+     *
+     * @return {@code true} if the file was downloaded, {@code false} if it has to be downloaded in a single stream
+     * @throws IOException if the download was cancelled
+     */
+    boolean download() throws IOException {
+        if (segments < 2
+                || !url.startsWith("http")) {
+            return false;
+        }
+        Probe probe;
+        try {
+            probe = probe();
+        } catch (IOException e) {
+            LOG.debug("Could not probe " + url + " for ranges, downloading in a single stream.", e);
+            return false;
+        }
+        if (probe == null) {
+            return false;
+        }
+        try {
+            download(probe);
+            return true;
+        } catch (IOException e) {
+            if (digest != null) {
+                digest.reset();
+            }
+            if (indicator.isCanceled()) {
+                throw e;
+            }
+            LOG.warn("Could not download " + url + " by segments, downloading in a single stream.", e);
+            return false;
+        }
+    }
+
+    private Probe probe() throws IOException {
+        return HttpRequests.head(url).useProxy(true).connect(request -> {
+            URLConnection connection = request.getConnection();
+            String acceptRanges = connection.getHeaderField("Accept-Ranges");
+            long length = connection.getContentLengthLong();
+            if (acceptRanges == null
+                    || !acceptRanges.contains("bytes")
+                    || length < 2 * MIN_SEGMENT_SIZE) {
+                return null;
+            }
+            if (!part.matches(connection)) {
+                part.reset(connection);
+                int count = (int) Math.min(segments, length / MIN_SEGMENT_SIZE);
+                long segmentSize = (length + count - 1) / count;
+                for (long start = 0; start < length; start += segmentSize) {
+                    part.setSegment(start, start);
+                }
+            } else if (part.getSegments().isEmpty()) {
+                // resumes the single stream that was started
+                return null;
+            }
+            // requests the segments from where redirects lead to
+            return new Probe(connection.getURL().toString());
+        });
+    }
+
+    private void download(Probe probe) throws IOException {
+        long length = part.getLength();
+        List<Long> starts = new ArrayList<>(part.getSegments().keySet());
+        AtomicLongArray positions = new AtomicLongArray(starts.size());
+        long downloaded = 0;
+        for (int i = 0; i < starts.size(); i++) {
+            long position = part.getSegments().get(starts.get(i));
+            positions.set(i, position);
+            downloaded += position - starts.get(i);
+        }
+        DownloadProgress progress = new DownloadProgress(indicator, downloaded, length);
+        AtomicReference<IOException> error = new AtomicReference<>();
+        part.store();
+        long hashed = 0;
+        try (FileChannel channel = FileChannel.open(part.getFile(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < length) {
+                channel.write(ByteBuffer.allocate(1), length - 1);
+            }
+            List<Thread> workers = new ArrayList<>(starts.size());
+            for (int i = 0; i < starts.size(); i++) {
+                long end = part.getSegmentEnd(starts.get(i));
+                if (positions.get(i) > end) {
+                    continue;
+                }
+                int segment = i;
+                Thread worker = ExecExecutors.getThreadFactory().newThread(() -> {
+                    try {
+                        downloadSegment(probe, channel, positions, segment, end, progress, error);
+                    } catch (IOException e) {
+                        error.compareAndSet(null, e);
+                    }
+                });
+                workers.add(worker);
+                worker.start();
+            }
+            for (Thread worker : workers) {
+                while (worker.isAlive()) {
+                    worker.join(HASH_INTERVAL_MILLIS);
+                    hashed = hash(channel, hashed, getContiguousEnd(starts, positions));
+                }
+            }
+            if (error.get() == null) {
+                hashed = hash(channel, hashed, getContiguousEnd(starts, positions));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error.compareAndSet(null, new IOException("Interrupted while downloading " + url, e));
+        } finally {
+            for (int i = 0; i < starts.size(); i++) {
+                part.setSegment(starts.get(i), positions.get(i));
+            }
+            part.store();
+        }
+        if (error.get() != null) {
+            throw error.get();
+        }
+        if (digest != null
+                && hashed != length) {
+            throw new IOException("Hashed " + hashed + " of " + length + " bytes of " + url);
+        }
+    }
+
+    /**
+     * Returns the position up to which the file was written without a gap, the end of the segments that are
+     * complete from the start of the file plus what the following one wrote.
+     */
+    private long getContiguousEnd(List<Long> starts, AtomicLongArray positions) {
+        long end = 0;
+        for (int i = 0; i < starts.size(); i++) {
+            if (starts.get(i) > end) {
+                break;
+            }
+            end = positions.get(i);
+            if (end <= part.getSegmentEnd(starts.get(i))) {
+                break;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Adds the bytes of the file from the given position up to the given end to the digest.
+     *
+     * @return the position up to which the file is hashed
+     */
+    private long hash(FileChannel channel, long from, long to) throws IOException {
+        if (digest == null
+                || from >= to) {
+            return from;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = from;
+        while (position < to) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), to - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            digest.update(buffer.array(), 0, read);
+            position += read;
+        }
+        return position;
+    }
+
+    private void downloadSegment(Probe probe, FileChannel channel, AtomicLongArray positions, int segment, long end,
+                                 DownloadProgress progress, AtomicReference<IOException> error) throws IOException {
+        long start = positions.get(segment);
+        HttpRequests.request(probe.url)
+                .useProxy(true)
+                .tuner(connection -> part.requestRange(connection, start, end))
+                .connect(request -> {
+                    if (!PartialDownload.isRange(request.getConnection(), start)) {
+                        throw new IOException("Server did not return the range " + start + "-" + end + " of " + url);
+                    }
+                    byte[] buffer = new byte[BUFFER_SIZE];
+                    long position = start;
+                    try (InputStream input = request.getInputStream()) {
+                        int read;
+                        while (position <= end
+                                && (read = input.read(buffer)) > 0) {
+                            if (progress.isCanceled()) {
+                                throw new IOException("Download of " + url + " was cancelled");
+                            }
+                            if (error.get() != null) {
+                                // another segment failed
+                                return null;
+                            }
+                            ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, (int) Math.min(read, end - position + 1));
+                            while (bytes.hasRemaining()) {
+                                position += channel.write(bytes, position);
+                            }
+                            positions.set(segment, position);
+                            progress.add(bytes.limit());
+                        }
+                    }
+                    if (position <= end) {
+                        throw new IOException("Range " + start + "-" + end + " of " + url + " ended at " + position);
+                    }
+                    return null;
+                });
+    }
+
+    private static class Probe {
+        private final String url;
+
+        private Probe(String url) {
+            this.url = url;
+        }
+    }
+}
@@ -10,13 +10,33 @@
  ******************************************************************************/
 package com.redhat.devtools.intellij.common.utils;
 
+import com.intellij.openapi.progress.EmptyProgressIndicator;
 import com.intellij.openapi.ui.TestDialog;
 import com.intellij.testFramework.LightPlatformTestCase;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.io.FileUtils;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
 
 public class DownloadHelperTest extends LightPlatformTestCase {
     private TestDialog previous;
@@ -61,6 +81,7 @@ public class DownloadHelperTest extends LightPlatformTestCase {
         DownloadHelper.ToolInstance toolInstance = DownloadHelper.getInstance().downloadIfRequired("tkn", DownloadHelperTest.class.getResource("/tkn-test.json"));
         assertNotNull(toolInstance);
         assertNotNull(toolInstance.getCommand());
+        assertTrue(Files.exists(Paths.get(toolInstance.getCommand() + DownloadHelper.CHECKSUM_SUFFIX)));
         FileUtils.deleteDirectory(Paths.get(toolInstance.getCommand()).toFile().getParentFile());
     }
 
@@ -70,6 +91,7 @@ public class DownloadHelperTest extends LightPlatformTestCase {
         fail("should raise exception");
       } catch (IOException e) {
         assertTrue(e.getMessage().contains("Error while setting tool"));
+        assertFalse(Files.exists(Paths.get(".", "cache", "0.5.0", "tkn")));
       }
     }
 
@@ -80,4 +102,164 @@ public class DownloadHelperTest extends LightPlatformTestCase {
         assertEquals(System.getProperty("tools.dl.path") + File.separatorChar + ".tkn-test" + File.separatorChar + "cache" + File.separatorChar + "0.5.0" + File.separatorChar + "tkn", toolInstance.getCommand());
         FileUtils.deleteDirectory(Paths.get(toolInstance.getCommand()).toFile().getParentFile().getParentFile().getParentFile());
     }
+
+    public void testThatCompletePartialDownloadIsNotRequestedAgain() throws Exception {
+        byte[] data = new byte[1000];
+        new Random(42).nextBytes(data);
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = serve(data, requests);
+        Path directory = Files.createTempDirectory("download-helper");
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/tkn";
+            DownloadHelper.downloadFile(url, new PartialDownload(directory.resolve("tkn"), url), new EmptyProgressIndicator(), null);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // the IDE was closed before the download was committed
+            DownloadHelper.downloadFile(url, new PartialDownload(directory.resolve("tkn"), url), new EmptyProgressIndicator(), digest);
+            assertEquals(1, requests.get());
+            assertTrue(Arrays.equals(MessageDigest.getInstance("SHA-256").digest(data), digest.digest()));
+        } finally {
+            server.stop(0);
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    public void testThatUnsatisfiableRangeRestartsDownload() throws Exception {
+        byte[] data = new byte[1000];
+        new Random(42).nextBytes(data);
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = serve(data, requests);
+        Path directory = Files.createTempDirectory("download-helper");
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/tkn";
+            PartialDownload part = new PartialDownload(directory.resolve("tkn"), url);
+            DownloadHelper.downloadFile(url, part, new EmptyProgressIndicator(), null);
+            // the partial file holds more than the content
+            Files.write(part.getFile(), new byte[10], StandardOpenOption.APPEND);
+            part = new PartialDownload(directory.resolve("tkn"), url);
+            DownloadHelper.downloadFile(url, part, new EmptyProgressIndicator(), null);
+            assertEquals(3, requests.get());
+            assertTrue(Arrays.equals(data, Files.readAllBytes(part.getFile())));
+        } finally {
+            server.stop(0);
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    public void testThatArchiveIsExtractedWhileDownloadedInsteadOfBySegments() throws Exception {
+        byte[] tool = new byte[(int) (2 * SegmentedDownload.MIN_SEGMENT_SIZE) + 1000];
+        new Random(42).nextBytes(tool);
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (OutputStream output = new GZIPOutputStream(archive)) {
+            output.write(tool);
+        }
+        byte[] data = archive.toByteArray();
+        List<String> requests = new CopyOnWriteArrayList<>();
+        HttpServer server = serveRanges(data, requests);
+        Path directory = Files.createTempDirectory("download-helper");
+        try {
+            URL config = writeConfig(directory, server, "yoda.gz", data);
+            DownloadHelper.ToolInstance toolInstance = DownloadHelper.getInstance().downloadIfRequired("yoda", config);
+            // a single stream, no probe for segments
+            assertEquals(Collections.singletonList("GET"), requests);
+            Path cmd = Paths.get(toolInstance.getCommand());
+            assertTrue(Arrays.equals(tool, Files.readAllBytes(cmd)));
+            assertTrue(Files.exists(Paths.get(toolInstance.getCommand() + DownloadHelper.CHECKSUM_SUFFIX)));
+            assertFalse(Files.exists(cmd.resolveSibling("yoda.gz")));
+        } finally {
+            server.stop(0);
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    public void testThatPlainFileIsDownloadedBySegments() throws Exception {
+        byte[] data = new byte[(int) (2 * SegmentedDownload.MIN_SEGMENT_SIZE) + 1000];
+        new Random(42).nextBytes(data);
+        List<String> requests = new CopyOnWriteArrayList<>();
+        HttpServer server = serveRanges(data, requests);
+        Path directory = Files.createTempDirectory("download-helper");
+        try {
+            URL config = writeConfig(directory, server, "yoda", data);
+            DownloadHelper.ToolInstance toolInstance = DownloadHelper.getInstance().downloadIfRequired("yoda", config);
+            assertEquals("HEAD", requests.get(0));
+            assertEquals(3, requests.size());
+            assertTrue(requests.subList(1, requests.size()).stream().allMatch(request -> request.startsWith("GET bytes=")));
+            assertTrue(Arrays.equals(data, Files.readAllBytes(Paths.get(toolInstance.getCommand()))));
+            assertTrue(Files.exists(Paths.get(toolInstance.getCommand() + DownloadHelper.CHECKSUM_SUFFIX)));
+        } finally {
+            server.stop(0);
+            FileUtils.deleteDirectory(directory.toFile());
+        }
+    }
+
+    /**
+     * Writes the config of a tool named yoda that is downloaded from the given server to the given directory.
+     */
+    private static URL writeConfig(Path directory, HttpServer server, String dlFileName, byte[] data) throws Exception {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/yoda/" + dlFileName;
+        String sha256 = Hex.encodeHexString(MessageDigest.getInstance("SHA-256").digest(data));
+        String platform = "{ \"url\": \"" + url + "\", \"cmdFileName\": \"yoda\", "
+                + "\"dlFileName\": \"" + dlFileName + "\", \"sha256\": \"" + sha256 + "\" }";
+        String config = "{ \"tools\": { \"yoda\": { "
+                + "\"version\": \"1.0.0\", \"versionCmd\": \"version\", "
+                + "\"versionExtractRegExp\": \"(\\\\d+[\\\\.\\\\d+]*)\", \"versionMatchRegExpr\": \"1\\\\..*\", "
+                + "\"baseDir\": \"" + directory.toString().replace('\\', '/') + "\", \"silentMode\": true, "
+                + "\"platforms\": { \"win\": " + platform + ", \"osx\": " + platform + ", \"lnx\": " + platform + " } } } }";
+        Path file = directory.resolve("yoda.json");
+        Files.write(file, config.getBytes(StandardCharsets.UTF_8));
+        return file.toUri().toURL();
+    }
+
+    /**
+     * Serves the given data with support for HEAD and ranges, and records the method and range of the requests.
+     */
+    private static HttpServer serveRanges(byte[] data, List<String> requests) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/yoda", exchange -> {
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            requests.add(range == null ? exchange.getRequestMethod() : exchange.getRequestMethod() + " " + range);
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().add("Content-Length", String.valueOf(data.length));
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            } else if (range != null) {
+                String[] bounds = range.substring("bytes=".length()).split("-");
+                int start = Integer.parseInt(bounds[0]);
+                int end = bounds.length > 1 ? Integer.parseInt(bounds[1]) : data.length - 1;
+                exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + data.length);
+                respond(exchange, 206, data, start, end - start + 1);
+            } else {
+                respond(exchange, 200, data, 0, data.length);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static HttpServer serve(byte[] data, AtomicInteger requests) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/tkn", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            int start = range == null ? 0 : Integer.parseInt(range.substring("bytes=".length(), range.indexOf('-')));
+            if (start >= data.length) {
+                respond(exchange, 416, data, 0, 0);
+            } else if (start > 0) {
+                exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + (data.length - 1) + "/" + data.length);
+                respond(exchange, 206, data, start, data.length - start);
+            } else {
+                respond(exchange, 200, data, 0, data.length);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] data, int offset, int length) throws IOException {
+        exchange.sendResponseHeaders(status, length == 0 ? -1 : length);
+        exchange.getResponseBody().write(data, offset, length);
+        exchange.close();
+    }
 }
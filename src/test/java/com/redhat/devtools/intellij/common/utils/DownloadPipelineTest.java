@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.testFramework.LightPlatformTestCase;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.io.FileUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+public class DownloadPipelineTest extends LightPlatformTestCase {
+
+    private static final UnaryOperator<InputStream> TAR_GZ = input -> {
+        try {
+            return new TarArchiveInputStream(new GzipCompressorInputStream(input));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    };
+
+    private final byte[] tkn = new byte[3 * DownloadPipeline.WRITE_CHUNK_SIZE + 7];
+    private byte[] archive;
+    private HttpServer server;
+    private Path directory;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        new Random(42).nextBytes(tkn);
+        archive = tarGz("tkn", tkn, "LICENSE", "yoda".getBytes(StandardCharsets.UTF_8));
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/tkn.tar.gz", exchange -> respond(exchange, archive));
+        server.createContext("/evil.tar.gz", exchange -> respond(exchange, tarGz("../evil", tkn)));
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        directory = Files.createTempDirectory("download-pipeline");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.stop(0);
+        FileUtils.deleteDirectory(directory.toFile());
+        super.tearDown();
+    }
+
+    public void testThatArchiveIsExtractedAndCommitted() throws IOException, NoSuchAlgorithmException {
+        // given
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        DownloadPipeline pipeline = pipeline("/tkn.tar.gz", TAR_GZ, digest, new EmptyProgressIndicator());
+        // when
+        pipeline.download();
+        pipeline.commit();
+        // then
+        assertTrue(Arrays.equals(tkn, Files.readAllBytes(directory.resolve("tkn"))));
+        assertEquals("yoda", Files.readString(directory.resolve("LICENSE")));
+        assertTrue(Arrays.equals(MessageDigest.getInstance("SHA-256").digest(archive), digest.digest()));
+        assertEquals(2, countFiles());
+    }
+
+    public void testThatFailedDownloadDeletesStagingDirectory() {
+        // given
+        DownloadPipeline pipeline = pipeline("/missing", TAR_GZ, null, new EmptyProgressIndicator());
+        // when
+        try {
+            pipeline.download();
+            fail("should raise exception");
+        } catch (IOException e) {
+            // then
+            assertEquals(0, countFiles());
+        }
+    }
+
+    public void testThatErrorOfDecoderIsPropagated() {
+        // given
+        DownloadPipeline pipeline = pipeline("/tkn.tar.gz", input -> {
+            throw new NoClassDefFoundError("org/apache/commons/compress/Yoda");
+        }, null, new EmptyProgressIndicator());
+        // when
+        try {
+            pipeline.download();
+            fail("should raise exception");
+        } catch (IOException e) {
+            // then
+            assertTrue(e.getCause() instanceof NoClassDefFoundError);
+            assertEquals(0, countFiles());
+        }
+    }
+
+    public void testThatEntryOutsideOfToolDirectoryIsRejected() {
+        // given
+        DownloadPipeline pipeline = pipeline("/evil.tar.gz", TAR_GZ, null, new EmptyProgressIndicator());
+        // when
+        try {
+            pipeline.download();
+            fail("should raise exception");
+        } catch (IOException e) {
+            // then
+            assertTrue(e.getMessage().contains("outside of the tool directory"));
+            assertEquals(0, countFiles());
+        }
+    }
+
+    public void testThatCancelledDownloadFails() {
+        // given
+        EmptyProgressIndicator indicator = new EmptyProgressIndicator();
+        indicator.cancel();
+        DownloadPipeline pipeline = pipeline("/tkn.tar.gz", TAR_GZ, null, indicator);
+        // when
+        try {
+            pipeline.download();
+            fail("should raise exception");
+        } catch (IOException e) {
+            // then
+            assertTrue(e.getMessage().contains("cancelled"));
+            assertEquals(0, countFiles());
+        }
+    }
+
+    private DownloadPipeline pipeline(String path, UnaryOperator<InputStream> decoder, MessageDigest digest,
+                                      EmptyProgressIndicator indicator) {
+        return new DownloadPipeline("http://127.0.0.1:" + server.getAddress().getPort() + path,
+                directory.resolve("tkn"), path.substring(1), decoder, digest, indicator);
+    }
+
+    private long countFiles() {
+        // the files that were committed, the staging directory is deleted
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] tarGz(Object... entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(bytes))) {
+            for (int i = 0; i < entries.length; i += 2) {
+                byte[] content = (byte[]) entries[i + 1];
+                TarArchiveEntry entry = new TarArchiveEntry((String) entries[i]);
+                entry.setSize(content.length);
+                tar.putArchiveEntry(entry);
+                tar.write(content);
+                tar.closeArchiveEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void respond(HttpExchange exchange, byte[] content) throws IOException {
+        exchange.sendResponseHeaders(200, content.length);
+        exchange.getResponseBody().write(content);
+        exchange.close();
+    }
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DownloadProgressTest {
+
+    private final ProgressIndicator indicator = mock(ProgressIndicator.class);
+
+    @Test
+    public void add_updates_indicator_at_most_once_per_interval() {
+        // given
+        DownloadProgress progress = new DownloadProgress(indicator, 0, 1000);
+        // when
+        for (int i = 0; i < 100; i++) {
+            progress.add(1);
+        }
+        // then
+        verify(indicator, times(1)).setFraction(anyDouble());
+        verify(indicator).setFraction(0.001);
+    }
+
+    @Test
+    public void add_updates_indicator_again_after_interval() throws InterruptedException {
+        // given
+        DownloadProgress progress = new DownloadProgress(indicator, 0, 1000);
+        progress.add(100);
+        // when
+        Thread.sleep(DownloadProgress.UPDATE_INTERVAL_MILLIS + 10);
+        progress.add(100);
+        // then
+        verify(indicator).setFraction(0.1);
+        verify(indicator).setFraction(0.2);
+    }
+
+    @Test
+    public void add_updates_indicator_once_download_completed() {
+        // given
+        DownloadProgress progress = new DownloadProgress(indicator, 500, 1000);
+        progress.add(100);
+        // when
+        progress.add(400);
+        // then
+        verify(indicator).setFraction(0.6);
+        verify(indicator).setFraction(1.0);
+    }
+
+    @Test
+    public void add_does_not_update_indicator_if_total_is_unknown() {
+        // given
+        DownloadProgress progress = new DownloadProgress(indicator, 0, -1);
+        // when
+        progress.add(100);
+        // then
+        verify(indicator, never()).setFraction(anyDouble());
+    }
+
+    @Test
+    public void isCanceled_returns_state_of_indicator() {
+        // given
+        DownloadProgress progress = new DownloadProgress(indicator, 0, 1000);
+        // when
+        when(indicator.isCanceled()).thenReturn(true);
+        // then
+        assertThat(progress.isCanceled()).isTrue();
+    }
+}
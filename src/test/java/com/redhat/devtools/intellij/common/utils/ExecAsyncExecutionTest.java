@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ExecAsyncExecutionTest {
+
+    private final List<ExecTelemetry.Record> records = new CopyOnWriteArrayList<>();
+    private final ExecTelemetry.Listener listener = records::add;
+    private Path pids;
+
+    @Before
+    public void before() throws IOException {
+        pids = Files.createTempFile("exec-async", ".pids");
+        ExecTelemetry.getInstance().addListener(listener);
+    }
+
+    @After
+    public void after() throws IOException {
+        ExecTelemetry.getInstance().removeListener(listener);
+        // kill what a failed test left over
+        readPids().forEach(pid -> ProcessHandle.of(pid).ifPresent(ProcessHandle::destroyForcibly));
+        Files.deleteIfExists(pids);
+    }
+
+    @Test
+    public void executeAsync_completes_with_result_once_process_exited() throws Exception {
+        // given
+        CompletableFuture<ExecHelper.ExecResult> future = ExecHelper.executeAsync("sh", Duration.ofSeconds(10),
+                "-c", "sleep 0.1; echo yoda; echo obiwan 1>&2");
+        // when
+        ExecHelper.ExecResult result = future.get(10, TimeUnit.SECONDS);
+        // then
+        assertThat(result.getStdOut()).isEqualTo("yoda\n");
+        assertThat(result.getStdErr()).isEqualTo("obiwan\n");
+        assertThat(result.getExitCode()).isZero();
+    }
+
+    @Test
+    public void executeAsync_completes_exceptionally_if_exit_code_is_not_0() {
+        // given
+        CompletableFuture<ExecHelper.ExecResult> future = ExecHelper.executeAsync("sh", Duration.ofSeconds(10),
+                "-c", "sleep 0.1; echo yoda 1>&2; exit 3");
+        // when
+        // then
+        assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IOException.class)
+                .hasMessageContaining("3 yoda");
+    }
+
+    @Test
+    public void executeAsync_adds_given_environment_to_inherited_environment() throws Exception {
+        // given
+        CompletableFuture<ExecHelper.ExecResult> future = ExecHelper.executeAsync("sh", Map.of("YODA", "jedi"),
+                Duration.ofSeconds(10), "-c", "echo \"$YODA\"; echo \"$PATH\"");
+        // when
+        ExecHelper.ExecResult result = future.get(10, TimeUnit.SECONDS);
+        // then
+        assertThat(result.getStdOut()).isEqualTo("jedi\n" + System.getenv("PATH") + "\n");
+    }
+
+    @Test
+    public void executeAsync_kills_process_tree_once_timeout_is_reached() throws Exception {
+        // given
+        CompletableFuture<ExecHelper.ExecResult> future = ExecHelper.executeAsync("sh", Duration.ofMillis(500),
+                "-c", "echo $$ > " + pids + "; sleep 30 & echo $! >> " + pids + "; wait");
+        // when
+        // then
+        assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IOException.class)
+                .hasMessageContaining("did not exit within 500 ms");
+        assertThat(readPids()).hasSize(2);
+        assertTerminated(readPids());
+    }
+
+    @Test
+    public void cancel_kills_process_tree() throws Exception {
+        // given
+        CompletableFuture<ExecHelper.ExecResult> future = ExecHelper.executeAsync("sh", Duration.ofSeconds(30),
+                "-c", "echo $$ > " + pids + "; sleep 30 & echo $! >> " + pids + "; wait");
+        waitForPids(2);
+        // when
+        boolean cancelled = future.cancel(true);
+        // then
+        assertThat(cancelled).isTrue();
+        assertTerminated(readPids());
+    }
+
+    @Test
+    public void executeAsync_records_execution_in_telemetry() throws Exception {
+        // given
+        CompletableFuture<ExecHelper.ExecResult> future = ExecHelper.executeAsync("sh", Duration.ofSeconds(10),
+                "-c", "echo yoda; echo obiwan 1>&2");
+        // when
+        future.get(10, TimeUnit.SECONDS);
+        // then
+        ExecTelemetry.Record record = waitForRecord();
+        assertThat(record.getMode()).isEqualTo(ExecTelemetry.Mode.RESULT);
+        assertThat(record.getExecutable()).isEqualTo("sh");
+        assertThat(record.getExitCode()).isZero();
+        assertThat(record.getBytesRead()).isEqualTo("yoda\nobiwan\n".length());
+        assertThat(record.getSpawnLatency()).isNotNull();
+        assertThat(record.getError()).isNull();
+    }
+
+    @Test
+    public void executeAsync_records_exit_code_and_error_in_telemetry_if_exit_code_is_not_0() throws Exception {
+        // given
+        CompletableFuture<ExecHelper.ExecResult> future = ExecHelper.executeAsync("sh", Duration.ofSeconds(10),
+                "-c", "exit 3");
+        // when
+        assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS));
+        // then
+        ExecTelemetry.Record record = waitForRecord();
+        assertThat(record.getExitCode()).isEqualTo(3);
+        assertThat(record.getError()).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void executeAsync_records_error_in_telemetry_once_timeout_is_reached() throws Exception {
+        // given
+        CompletableFuture<ExecHelper.ExecResult> future = ExecHelper.executeAsync("sh", Duration.ofMillis(200),
+                "-c", "sleep 30");
+        // when
+        assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS));
+        // then
+        ExecTelemetry.Record record = waitForRecord();
+        assertThat(record.getError()).hasMessageContaining("did not exit within 200 ms");
+    }
+
+    @Test
+    public void cancel_records_cancellation_in_telemetry() throws Exception {
+        // given
+        CompletableFuture<ExecHelper.ExecResult> future = ExecHelper.executeAsync("sh", Duration.ofSeconds(30),
+                "-c", "sleep 30");
+        // when
+        future.cancel(true);
+        // then
+        ExecTelemetry.Record record = waitForRecord();
+        assertThat(record.getError()).isInstanceOf(CancellationException.class);
+    }
+
+    @Test
+    public void executeAsync_records_error_in_telemetry_if_process_cannot_be_started() throws Exception {
+        // given
+        CompletableFuture<ExecHelper.ExecResult> future = ExecHelper.executeAsync("intellij-common-no-such-executable",
+                Duration.ofSeconds(10));
+        // when
+        assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS));
+        // then
+        ExecTelemetry.Record record = waitForRecord();
+        assertThat(record.getSpawnLatency()).isNull();
+        assertThat(record.getError()).isInstanceOf(IOException.class);
+    }
+
+    /**
+     * Waits for the record of the execution, the future completes before the execution is recorded.
+     */
+    private ExecTelemetry.Record waitForRecord() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (records.isEmpty()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+        assertThat(records).hasSize(1);
+        return records.get(0);
+    }
+
+    private void waitForPids(int count) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (readPids().size() < count) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private List<Long> readPids() throws IOException {
+        return Files.readAllLines(pids).stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .map(Long::parseLong)
+                .collect(Collectors.toList());
+    }
+
+    private static void assertTerminated(List<Long> pids) throws Exception {
+        for (long pid : pids) {
+            Optional<ProcessHandle> process = ProcessHandle.of(pid);
+            if (process.isPresent()) {
+                // the process may not be reaped yet
+                process.get().onExit().get(5, TimeUnit.SECONDS);
+            }
+        }
+    }
+}
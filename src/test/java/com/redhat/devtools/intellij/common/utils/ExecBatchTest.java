@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecBatchTest {
+
+    private final List<ExecCommand> commands = List.of(
+            new ExecCommand("oc", "get", "pods", "-n", "jedi"),
+            new ExecCommand("oc", "get", "pods", "-n", "sith"),
+            new ExecCommand("oc", "get", "pods", "-n", "rebels"));
+
+    @Test
+    public void execute_returns_results_in_submission_order() throws IOException {
+        // given
+        ExecBatch batch = new ExecBatch(3, command -> command.getArguments().get(3));
+        // when
+        ExecBatch.Summary summary = batch.execute(commands);
+        // then
+        assertThat(summary.getResults())
+                .extracting(ExecBatch.Result::getOutput)
+                .containsExactly("jedi", "sith", "rebels");
+        assertThat(summary.isSuccess()).isTrue();
+    }
+
+    @Test
+    public void execute_hands_over_results_in_completion_order() throws IOException {
+        // given
+        CountDownLatch sithDone = new CountDownLatch(1);
+        ExecBatch batch = new ExecBatch(3, command -> {
+            String namespace = command.getArguments().get(3);
+            if ("sith".equals(namespace)) {
+                sithDone.countDown();
+            } else {
+                await(sithDone);
+            }
+            return namespace;
+        });
+        List<String> handedOver = new ArrayList<>();
+        // when
+        batch.execute(commands, ExecBatch.Order.COMPLETION, result -> handedOver.add(result.getOutput()));
+        // then
+        assertThat(handedOver.get(0)).isEqualTo("sith");
+        assertThat(handedOver).containsExactlyInAnyOrder("jedi", "sith", "rebels");
+    }
+
+    @Test
+    public void execute_reports_failures_without_failing_other_commands() throws IOException {
+        // given
+        ExecBatch batch = new ExecBatch(2, command -> {
+            String namespace = command.getArguments().get(3);
+            if ("sith".equals(namespace)) {
+                throw new IOException("forbidden");
+            }
+            return namespace;
+        });
+        // when
+        ExecBatch.Summary summary = batch.execute(commands);
+        // then
+        assertThat(summary.getSucceeded()).isEqualTo(2);
+        assertThat(summary.getFailed()).isEqualTo(1);
+        assertThat(summary.getResults().get(1).getError()).hasMessage("forbidden");
+        assertThat(summary.getResults().get(2).getOutput()).isEqualTo("rebels");
+    }
+
+    @Test
+    public void execute_reports_errors_and_runs_remaining_commands() throws IOException {
+        // given
+        ExecBatch batch = new ExecBatch(1, command -> {
+            String namespace = command.getArguments().get(3);
+            if ("jedi".equals(namespace)) {
+                throw new StackOverflowError("too deep");
+            }
+            return namespace;
+        });
+        // when
+        ExecBatch.Summary summary = batch.execute(commands);
+        // then
+        assertThat(summary.getFailed()).isEqualTo(1);
+        assertThat(summary.getResults().get(0).getError()).hasCauseInstanceOf(StackOverflowError.class);
+        assertThat(summary.getResults())
+                .extracting(ExecBatch.Result::getOutput)
+                .containsExactly(null, "sith", "rebels");
+    }
+
+    @Test
+    public void execute_runs_at_most_parallelism_commands_at_once() throws IOException {
+        // given
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExecBatch batch = new ExecBatch(2, command -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep();
+            running.decrementAndGet();
+            return "";
+        });
+        // when
+        batch.execute(commands);
+        // then
+        assertThat(maxRunning.get()).isEqualTo(2);
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void sleep() throws IOException {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.util.Disposer;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecExecutorsTest {
+
+    @After
+    public void after() {
+        ExecExecutors.setBackend(null);
+    }
+
+    @Test
+    public void getExecutor_creates_executor_once() {
+        // given
+        ExecExecutors.shutdown();
+        // when
+        ExecutorService executor = ExecExecutors.getExecutor();
+        // then
+        assertThat(executor.isShutdown()).isFalse();
+        assertThat(ExecExecutors.getExecutor()).isSameAs(executor);
+    }
+
+    @Test
+    public void shutdown_shuts_executor_down_and_next_use_creates_new_one() {
+        // given
+        ExecutorService executor = ExecExecutors.getExecutor();
+        // when
+        ExecExecutors.shutdown();
+        // then
+        assertThat(executor.isShutdown()).isTrue();
+        assertThat(ExecExecutors.getExecutor()).isNotSameAs(executor);
+    }
+
+    @Test
+    public void shutdownWith_shuts_executor_down_once_parent_is_disposed() {
+        // given
+        Disposable parent = Disposer.newDisposable();
+        ExecutorService executor = ExecExecutors.getExecutor();
+        ExecExecutors.shutdownWith(parent);
+        assertThat(executor.isShutdown()).isFalse();
+        // when
+        Disposer.dispose(parent);
+        // then
+        assertThat(executor.isShutdown()).isTrue();
+    }
+
+    @Test
+    public void setBackend_platform_creates_named_daemon_threads() {
+        // given
+        ExecExecutors.setBackend(ExecExecutors.Backend.PLATFORM);
+        // when
+        Thread thread = ExecExecutors.getThreadFactory().newThread(() -> {});
+        // then
+        assertThat(thread.isDaemon()).isTrue();
+        assertThat(thread.getName()).startsWith("intellij-common-exec-");
+    }
+
+    @Test
+    public void setBackend_virtual_falls_back_to_platform_if_not_supported() {
+        // given
+        // when
+        ExecExecutors.setBackend(ExecExecutors.Backend.VIRTUAL);
+        // then
+        assertThat(ExecExecutors.getBackend()).isEqualTo(ExecExecutors.isVirtualThreadSupported() ?
+                ExecExecutors.Backend.VIRTUAL
+                : ExecExecutors.Backend.PLATFORM);
+        assertThat(ExecExecutors.getThreadFactory().newThread(() -> {}).getName()).startsWith("intellij-common-exec-");
+    }
+}
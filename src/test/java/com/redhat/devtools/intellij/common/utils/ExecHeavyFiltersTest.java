@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.execution.filters.Filter;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecHeavyFiltersTest {
+
+    private static final ExecHeavyFilters.BatchRunner DIRECT = batch -> {
+        try {
+            return batch.call();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    };
+
+    private final ExecScrollback scrollback = new ExecScrollback(10_000, 1024);
+    private final List<Applied> applied = new CopyOnWriteArrayList<>();
+    private final ExecHeavyFilters filters = new ExecHeavyFilters(scrollback,
+            (links, generation) -> applied.add(new Applied(links, generation)), DIRECT);
+
+    @After
+    public void after() {
+        filters.dispose();
+        scrollback.dispose();
+    }
+
+    @Test
+    public void enable_filters_completed_lines_in_batches() throws IOException, InterruptedException {
+        // given
+        for (int i = 0; i < 1200; i++) {
+            scrollback.append("yoda " + i + "\n");
+        }
+        filters.addFilter(linking("yoda"));
+        // when
+        filters.enable();
+        // then
+        waitFor(() -> countLinks() == 1200);
+        assertThat(applied.stream().map(batch -> batch.links.size()).collect(Collectors.toList()))
+                .containsExactly(ExecHeavyFilters.BATCH_SIZE, ExecHeavyFilters.BATCH_SIZE, 200);
+        assertThat(applied.get(1).links.get(0).getLine()).isEqualTo(ExecHeavyFilters.BATCH_SIZE);
+        assertThat(applied.get(1).links.get(0).getStart()).isZero();
+        assertThat(applied.get(1).links.get(0).getText()).isEqualTo("yoda");
+    }
+
+    @Test
+    public void schedule_skips_incomplete_last_line() throws IOException, InterruptedException {
+        // given
+        scrollback.append("yoda\nyo");
+        filters.addFilter(linking("yoda"));
+        filters.enable();
+        waitFor(() -> countLinks() == 1);
+        // when
+        scrollback.append("da");
+        filters.schedule();
+        Thread.sleep(100);
+        // then
+        assertThat(countLinks()).isEqualTo(1);
+        // when
+        scrollback.append("\n");
+        filters.schedule();
+        // then
+        waitFor(() -> countLinks() == 2);
+        assertThat(applied.get(1).links.get(0).getLine()).isEqualTo(1);
+    }
+
+    @Test
+    public void cancel_drops_links_of_running_batch() throws IOException, InterruptedException {
+        // given
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        scrollback.append("yoda\n");
+        filters.addFilter(blocking(linking("yoda"), entered, release, new AtomicInteger()));
+        filters.enable();
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        // when
+        filters.cancel();
+        release.countDown();
+        // then
+        waitFor(() -> countLinks() == 1);
+        assertThat(applied.get(0).generation).isEqualTo(1);
+        assertThat(filters.isCurrent(0)).isFalse();
+        assertThat(filters.isCurrent(1)).isTrue();
+    }
+
+    @Test
+    public void dispose_stops_filtering() throws IOException, InterruptedException {
+        // given
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        scrollback.append("yoda\nobiwan\n");
+        filters.addFilter(blocking(linking("yoda"), entered, release, calls));
+        filters.enable();
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        // when
+        filters.dispose();
+        release.countDown();
+        scrollback.append("yoda\n");
+        filters.schedule();
+        Thread.sleep(100);
+        // then
+        assertThat(applied).isEmpty();
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void expired_batch_stops_filtering() throws IOException, InterruptedException {
+        // given
+        AtomicInteger runs = new AtomicInteger();
+        ExecHeavyFilters expiring = new ExecHeavyFilters(scrollback,
+                (links, generation) -> applied.add(new Applied(links, generation)),
+                batch -> {
+                    runs.incrementAndGet();
+                    return null;
+                });
+        scrollback.append("yoda\n");
+        expiring.addFilter(linking("yoda"));
+        // when
+        expiring.enable();
+        Thread.sleep(100);
+        // then
+        assertThat(applied).isEmpty();
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void canceled_filter_cancels_batch() throws IOException, InterruptedException {
+        // given
+        List<Exception> errors = new CopyOnWriteArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+        ExecHeavyFilters canceled = new ExecHeavyFilters(scrollback,
+                (links, generation) -> applied.add(new Applied(links, generation)),
+                batch -> {
+                    try {
+                        return batch.call();
+                    } catch (Exception e) {
+                        errors.add(e);
+                        return null;
+                    }
+                });
+        scrollback.append("yoda\nobiwan\n");
+        canceled.addFilter((line, entireLength) -> {
+            calls.incrementAndGet();
+            throw new ProcessCanceledException();
+        });
+        // when
+        canceled.enable();
+        waitFor(() -> !errors.isEmpty());
+        // then
+        assertThat(errors).hasSize(1);
+        assertThat(errors.get(0)).isInstanceOf(ProcessCanceledException.class);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(applied).isEmpty();
+    }
+
+    @Test
+    public void failing_filter_does_not_stop_other_filters() throws IOException, InterruptedException {
+        // given
+        scrollback.append("yoda\n");
+        filters.addFilter((line, entireLength) -> {
+            throw new IllegalStateException("boom");
+        });
+        filters.addFilter(linking("yoda"));
+        // when
+        filters.enable();
+        // then
+        waitFor(() -> countLinks() == 1);
+    }
+
+    private int countLinks() {
+        return applied.stream().mapToInt(batch -> batch.links.size()).sum();
+    }
+
+    private static Filter linking(String word) {
+        return (line, entireLength) -> {
+            int index = line.indexOf(word);
+            if (index < 0) {
+                return null;
+            }
+            int lineStart = entireLength - line.length();
+            return new Filter.Result(lineStart + index, lineStart + index + word.length(), project -> {});
+        };
+    }
+
+    private static Filter blocking(Filter filter, CountDownLatch entered, CountDownLatch release, AtomicInteger calls) {
+        return (line, entireLength) -> {
+            calls.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return filter.applyFilter(line, entireLength);
+        };
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static class Applied {
+        private final List<ExecHeavyFilters.Link> links;
+        private final long generation;
+
+        private Applied(List<ExecHeavyFilters.Link> links, long generation) {
+            this.links = links;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.apache.commons.io.output.WriterOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of notifying a listener of the output of {@link ExecHelper#execute}: pumps the output of a chatty
+ * process, ex. {@code oc get all -A}, in buffers of the size of the stream pumper into the output stream of the
+ * execution, and reports the events, the elapsed time and the bytes allocated per round for
+ * <ul>
+ *     <li>the former listening stream that decoded each buffer once for the writer and again for the listener,</li>
+ *     <li>{@link ExecLineOutputStream} with an event per line,</li>
+ *     <li>{@link ExecLineOutputStream} with an event per buffer, the lines are not split.</li>
+ * </ul>
+ * The first rounds warm up the JIT. It is not run with the tests, run it with
+ * {@code java ... ExecLineOutputStreamBenchmark [lines] [rounds]}.
+ */
+public class ExecLineOutputStreamBenchmark {
+
+    private static final int DEFAULT_LINES = 1_000_000;
+    private static final int DEFAULT_ROUNDS = 5;
+    // the buffer size of the commons-exec stream pumper
+    private static final int PUMP_BUFFER_SIZE = 1024;
+
+    enum Mode {
+        DECODED_TWICE,
+        SPLIT_LINES,
+        COALESCED_LINES
+    }
+
+    public static void main(String[] args) throws IOException {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_LINES;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+        byte[] output = createOutput(lines);
+        for (int round = 1; round <= rounds; round++) {
+            for (Mode mode : Mode.values()) {
+                Result result = run(mode, output);
+                System.out.printf("round %d: %-15s %d lines, %d events, %d chars, %d ms, %d MB allocated, %.0f bytes/line%n",
+                        round, mode, lines, result.events, result.chars, TimeUnit.NANOSECONDS.toMillis(result.nanos),
+                        result.allocated / (1024 * 1024), (double) result.allocated / lines);
+            }
+        }
+    }
+
+    static byte[] createOutput(int lines) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (int i = 0; i < lines; i++) {
+            byte[] line = ("openshift-monitoring   pod/prometheus-k8s-" + i + "   2/2   Running   0   3d\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            output.write(line, 0, line.length);
+        }
+        return output.toByteArray();
+    }
+
+    static Result run(Mode mode, byte[] output) throws IOException {
+        CountingListener listener = new CountingListener();
+        CountingWriter writer = new CountingWriter();
+        long allocated = getAllocatedBytes();
+        long start = System.nanoTime();
+        try (OutputStream stream = createStream(mode, writer, StandardCharsets.UTF_8, listener)) {
+            for (int offset = 0; offset < output.length; offset += PUMP_BUFFER_SIZE) {
+                stream.write(output, offset, Math.min(PUMP_BUFFER_SIZE, output.length - offset));
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        return new Result(listener.events, writer.chars, nanos, getAllocatedBytes() - allocated);
+    }
+
+    private static OutputStream createStream(Mode mode, Writer writer, Charset charset, CountingListener listener) {
+        switch (mode) {
+            case DECODED_TWICE:
+                return new DecodedTwiceOutputStream(writer, charset, listener);
+            case SPLIT_LINES:
+                return new ExecLineOutputStream(charset, ExecLineOutputStream.DEFAULT_MAX_CHUNK_SIZE, true, chunk -> {
+                    writer.write(chunk);
+                    listener.onTextAvailable(chunk);
+                });
+            default:
+                return new ExecLineOutputStream(charset, ExecLineOutputStream.DEFAULT_MAX_CHUNK_SIZE, false, chunk -> {
+                    writer.write(chunk);
+                    listener.onTextAvailable(chunk);
+                });
+        }
+    }
+
+    private static long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * The listening stream that {@link ExecHelper} used before {@link ExecLineOutputStream}.
+     */
+    private static class DecodedTwiceOutputStream extends WriterOutputStream {
+        private final Charset charset;
+        private final CountingListener listener;
+
+        private DecodedTwiceOutputStream(Writer writer, Charset charset, CountingListener listener) {
+            super(writer, charset);
+            this.charset = charset;
+            this.listener = listener;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            listener.onTextAvailable(new String(b, off, len, charset));
+        }
+    }
+
+    private static class CountingListener {
+        private long events = 0;
+
+        private void onTextAvailable(String text) {
+            events++;
+        }
+    }
+
+    private static class CountingWriter extends Writer {
+        private long chars = 0;
+
+        @Override
+        public void write(char[] buffer, int off, int len) {
+            chars += len;
+        }
+
+        @Override
+        public void write(String text) {
+            chars += text.length();
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    static class Result {
+        private final long events;
+        private final long chars;
+        private final long nanos;
+        private final long allocated;
+
+        private Result(long events, long chars, long nanos, long allocated) {
+            this.events = events;
+            this.chars = chars;
+            this.nanos = nanos;
+            this.allocated = allocated;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecLineOutputStreamTest {
+
+    private final List<String> chunks = new ArrayList<>();
+
+    @Test
+    public void write_hands_over_complete_lines() throws IOException {
+        // given
+        ExecLineOutputStream stream = new ExecLineOutputStream(StandardCharsets.UTF_8, chunks::add);
+        // when
+        stream.write("luke\nleia\nhan".getBytes(StandardCharsets.UTF_8));
+        // then
+        assertThat(chunks).containsExactly("luke\n", "leia\n");
+    }
+
+    @Test
+    public void flush_hands_over_incomplete_line() throws IOException {
+        // given
+        ExecLineOutputStream stream = new ExecLineOutputStream(StandardCharsets.UTF_8, chunks::add);
+        stream.write("luke\nhan".getBytes(StandardCharsets.UTF_8));
+        // when
+        stream.flush();
+        // then
+        assertThat(chunks).containsExactly("luke\n", "han");
+    }
+
+    @Test
+    public void write_splits_lines_longer_than_max_chunk_size() throws IOException {
+        // given
+        ExecLineOutputStream stream = new ExecLineOutputStream(StandardCharsets.UTF_8, 4, chunks::add);
+        // when
+        stream.write("chewbacca\n".getBytes(StandardCharsets.UTF_8));
+        stream.close();
+        // then
+        assertThat(chunks).containsExactly("chew", "bacc", "a\n");
+    }
+
+    @Test
+    public void write_keeps_multi_byte_sequences_split_across_writes() throws IOException {
+        // given
+        ExecLineOutputStream stream = new ExecLineOutputStream(StandardCharsets.UTF_8, chunks::add);
+        byte[] bytes = "déjà vu €\n".getBytes(StandardCharsets.UTF_8);
+        // when
+        for (byte b : bytes) {
+            stream.write(new byte[] { b }, 0, 1);
+        }
+        stream.close();
+        // then
+        assertThat(chunks).containsExactly("déjà vu €\n");
+    }
+
+    @Test
+    public void write_coalesces_complete_lines_if_lines_are_not_split() throws IOException {
+        // given
+        ExecLineOutputStream stream = new ExecLineOutputStream(StandardCharsets.UTF_8,
+                ExecLineOutputStream.DEFAULT_MAX_CHUNK_SIZE, false, chunks::add);
+        // when
+        stream.write("luke\nleia\nhan".getBytes(StandardCharsets.UTF_8));
+        stream.write(" solo\nyoda".getBytes(StandardCharsets.UTF_8));
+        stream.flush();
+        // then
+        assertThat(chunks).containsExactly("luke\nleia\n", "han solo\n", "yoda");
+    }
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecOutputMultiplexerTest {
+
+    private final ExecOutputMultiplexer multiplexer = new ExecOutputMultiplexer();
+
+    @Test
+    public void register_reads_sources_on_single_thread() throws InterruptedException {
+        // given
+        Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+        FakeSource yoda = new FakeSource(threads);
+        FakeSource obiwan = new FakeSource(threads);
+        // when
+        multiplexer.register(yoda);
+        multiplexer.register(obiwan);
+        yoda.output.put("yoda");
+        obiwan.output.put("obiwan");
+        yoda.stopRequested = true;
+        obiwan.stopRequested = true;
+        // then
+        assertThat(yoda.finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(obiwan.finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(yoda.read).hasToString("yoda");
+        assertThat(obiwan.read).hasToString("obiwan");
+        assertThat(threads).hasSize(1);
+    }
+
+    @Test
+    public void stop_drains_remaining_output() throws InterruptedException {
+        // given
+        FakeSource source = new FakeSource(new HashSet<>());
+        source.output.put("luke");
+        source.output.put("leia");
+        source.stopRequested = true;
+        // when
+        multiplexer.register(source);
+        // then
+        assertThat(source.finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(source.read).hasToString("lukeleia");
+        assertThat(multiplexer.size()).isZero();
+    }
+
+    @Test
+    public void error_removes_source() throws InterruptedException {
+        // given
+        FakeSource source = new FakeSource(new HashSet<>()) {
+            @Override
+            public boolean pump() throws IOException {
+                throw new IOException("boom");
+            }
+        };
+        // when
+        multiplexer.register(source);
+        // then
+        assertThat(source.finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(source.error).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void source_that_is_not_ready_is_skipped_while_others_keep_flowing() throws InterruptedException {
+        // given
+        ExecTerminalWriter paused = new ExecTerminalWriter(text -> {});
+        paused.setPaused(true);
+        paused.write(new String(new char[ExecTerminalWriter.MAX_DEFERRED_CHARS]), null, false);
+        FakeSource yoda = new FakeSource(new HashSet<>());
+        yoda.ready = () -> !paused.isFull();
+        FakeSource obiwan = new FakeSource(new HashSet<>());
+        multiplexer.register(yoda);
+        multiplexer.register(obiwan);
+        // when
+        yoda.output.put("yoda");
+        obiwan.output.put("obiwan");
+        obiwan.stopRequested = true;
+        // then
+        assertThat(obiwan.finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(obiwan.read).hasToString("obiwan");
+        assertThat(yoda.read).hasToString("");
+        // when
+        paused.setPaused(false);
+        yoda.stopRequested = true;
+        // then
+        assertThat(yoda.finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(yoda.read).hasToString("yoda");
+    }
+
+    private static class FakeSource implements ExecOutputMultiplexer.Source {
+        private final BlockingQueue<String> output = new ArrayBlockingQueue<>(8);
+        private final StringBuffer read = new StringBuffer();
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private final Set<Thread> threads;
+        private volatile boolean stopRequested = false;
+        private volatile BooleanSupplier ready = () -> true;
+        private volatile Throwable error;
+
+        private FakeSource(Set<Thread> threads) {
+            this.threads = threads;
+        }
+
+        @Override
+        public boolean pump() throws IOException {
+            threads.add(Thread.currentThread());
+            String text = output.poll();
+            if (text == null) {
+                return false;
+            }
+            read.append(text);
+            return true;
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready.getAsBoolean();
+        }
+
+        @Override
+        public boolean isStopRequested() {
+            return stopRequested;
+        }
+
+        @Override
+        public void finish(Throwable error) {
+            this.error = error;
+            finished.countDown();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.execution.process.ProcessAdapter;
+import com.intellij.execution.process.ProcessEvent;
+import com.intellij.execution.process.ProcessOutputTypes;
+import com.intellij.openapi.util.Key;
+import com.intellij.testFramework.LightPlatformTestCase;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ExecProcessHandlerTest extends LightPlatformTestCase {
+
+    public void testThatMultiplexedHandlerDeliversOutputAndError() throws IOException {
+        // given
+        Output output = new Output();
+        ExecProcessHandler handler = start("echo yoda; echo obiwan 1>&2", output);
+        // when
+        assertTrue(handler.waitFor(5000));
+        // then
+        assertEquals("yoda\n", output.stdout.toString());
+        assertEquals("obiwan\n", output.stderr.toString());
+    }
+
+    public void testThatMultiplexedHandlerDrainsOutputOnTermination() throws IOException {
+        // given
+        Output output = new Output();
+        // more than what a pipe buffers and a single round reads
+        ExecProcessHandler handler = start("seq 1 100000", output);
+        // when
+        assertTrue(handler.waitFor(10000));
+        // then
+        String[] lines = output.stdout.toString().split("\n");
+        assertEquals(100000, lines.length);
+        assertEquals("100000", lines[lines.length - 1]);
+    }
+
+    public void testThatChattyMultiplexedHandlerDoesNotStarveOthers() throws IOException {
+        // given
+        AtomicLong chattyChars = new AtomicLong();
+        ExecProcessHandler chatty = handler("yes yoda");
+        chatty.addProcessListener(new ProcessAdapter() {
+            @Override
+            public void onTextAvailable(ProcessEvent event, Key outputType) {
+                chattyChars.addAndGet(event.getText().length());
+            }
+        });
+        chatty.startNotify();
+        try {
+            Output output = new Output();
+            // when
+            ExecProcessHandler quiet = start("sleep 0.2; echo luke", output);
+            // then
+            assertTrue(quiet.waitFor(5000));
+            assertEquals("luke\n", output.stdout.toString());
+            assertFalse(chatty.isProcessTerminated());
+            assertTrue(chattyChars.get() > 0);
+        } finally {
+            chatty.destroyProcess();
+            chatty.waitFor(5000);
+        }
+    }
+
+    private static ExecProcessHandler start(String script, Output output) throws IOException {
+        ExecProcessHandler handler = handler(script);
+        handler.addProcessListener(output);
+        handler.startNotify();
+        return handler;
+    }
+
+    private static ExecProcessHandler handler(String script) throws IOException {
+        Process process = new ProcessBuilder("sh", "-c", script).start();
+        return new ExecProcessHandler(process, "sh -c " + script, StandardCharsets.UTF_8, true);
+    }
+
+    private static class Output extends ProcessAdapter {
+        private final StringBuffer stdout = new StringBuffer();
+        private final StringBuffer stderr = new StringBuffer();
+
+        @Override
+        public void onTextAvailable(ProcessEvent event, Key outputType) {
+            if (ProcessOutputTypes.STDOUT.equals(outputType)) {
+                stdout.append(event.getText());
+            } else if (ProcessOutputTypes.STDERR.equals(outputType)) {
+                stderr.append(event.getText());
+            }
+        }
+    }
+}
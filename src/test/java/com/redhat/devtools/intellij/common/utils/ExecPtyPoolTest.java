@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+public class ExecPtyPoolTest {
+
+    private static final String MARKER = "intellij-common-pty-ready";
+
+    private File directory;
+
+    @Before
+    public void before() throws IOException {
+        directory = Files.createTempDirectory("exec pty pool").toFile();
+    }
+
+    @After
+    public void after() throws IOException {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void quote_escapes_single_quotes() {
+        // given
+        // when
+        String quoted = ExecPtyPool.quote("it's");
+        // then
+        assertThat(quoted).isEqualTo("'it'\\''s'");
+    }
+
+    @Test
+    public void toScript_quotes_command_environment_and_working_directory() {
+        // given
+        // when
+        String script = ExecPtyPool.toScript(new File("/tmp/a b"), Map.of("YODA", "it's"),
+                "sh", "-c", "echo $YODA");
+        // then
+        assertThat(script).endsWith("stty echo; cd '/tmp/a b' && exec env 'YODA=it'\\''s' 'sh' '-c' 'echo $YODA'; exit $?\n");
+    }
+
+    @Test
+    public void toScript_executes_command_verbatim() throws IOException, InterruptedException {
+        // given
+        assumeThat(ExecPtyPool.isSupported()).isTrue();
+        String script = ExecPtyPool.toScript(directory, Map.of("YODA", "it's $HOME"),
+                "sh", "-c", "echo \"$YODA\"; pwd; printf '%s|' \"$@\"", "sh", "a b", "`obiwan`");
+        // when
+        // stty fails without a terminal, the script goes on
+        Process process = new ProcessBuilder("/bin/sh", "-c", script).start();
+        String output = new String(process.getInputStream().readAllBytes(), Charset.defaultCharset());
+        // then
+        assertThat(process.waitFor()).isZero();
+        assertThat(output).isEqualTo("it's $HOME\n" + directory.getCanonicalPath() + "\na b|`obiwan`|");
+    }
+
+    @Test
+    public void readLineWith_consumes_end_of_marker_line() throws IOException {
+        // given
+        InputStream output = chunks("stty -echo; printf '%s%s\\n' 'intellij-common-' 'pty-ready'\r\n",
+                "intellij-common-", "pty-ready", "\r", "\n", "yoda\r\n");
+        // when
+        ExecPtyPool.readLineWith(output, MARKER);
+        // then
+        assertThat(new String(output.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("yoda\r\n");
+    }
+
+    @Test
+    public void readLineWith_does_not_consume_output_after_marker_line() throws IOException {
+        // given
+        InputStream output = chunks(MARKER + "\r\nyoda");
+        // when
+        ExecPtyPool.readLineWith(output, MARKER);
+        // then
+        assertThat(new String(output.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("yoda");
+    }
+
+    @Test
+    public void readLineWith_throws_if_output_ends_before_marker_line() {
+        // given
+        InputStream output = chunks("yoda\r\n", MARKER);
+        // when
+        // then
+        assertThatThrownBy(() -> ExecPtyPool.readLineWith(output, MARKER))
+                .isInstanceOf(IOException.class);
+    }
+
+    /**
+     * Returns a stream that returns the given chunks in separate reads, like the output of a terminal.
+     */
+    private static InputStream chunks(String... chunks) {
+        List<InputStream> streams = List.of(chunks).stream()
+                .map(chunk -> new ByteArrayInputStream(chunk.getBytes(StandardCharsets.UTF_8)))
+                .collect(Collectors.toList());
+        return new SequenceInputStream(Collections.enumeration(streams));
+    }
+}
@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecPumpStreamHandlerTest {
+
+    @Test
+    public void createPump_pumps_on_thread_of_exec_executors() throws InterruptedException {
+        // given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExecPumpStreamHandler handler = new ExecPumpStreamHandler(out);
+        // when
+        Thread pump = handler.createPump(new ByteArrayInputStream("yoda".getBytes(StandardCharsets.UTF_8)), out, true);
+        pump.start();
+        pump.join(5000);
+        // then
+        assertThat(pump.getName()).startsWith("intellij-common-exec-");
+        assertThat(pump.isAlive()).isFalse();
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("yoda");
+    }
+}
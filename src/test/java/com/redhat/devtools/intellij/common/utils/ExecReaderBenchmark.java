@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.util.io.BaseInputStreamReader;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link ExecReader}: reads the output of a chatty process, ex. {@code oc logs -f}, like
+ * a terminal does, and reports the chars, the elapsed time and the bytes allocated per round for the reader that
+ * converted the line feeds char by char into an intermediate buffer and for {@link ExecReader} that copies them in
+ * bulk. The first rounds warm up the JIT. It is not run with the tests, run it with
+ * {@code java ... ExecReaderBenchmark [lines] [rounds]}.
+ */
+public class ExecReaderBenchmark {
+
+    private static final int DEFAULT_LINES = 1_000_000;
+    private static final int DEFAULT_ROUNDS = 5;
+    private static final int TERMINAL_BUFFER_SIZE = 1024;
+
+    enum Mode {
+        CHAR_BY_CHAR,
+        BULK
+    }
+
+    public static void main(String[] args) throws IOException {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_LINES;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+        byte[] output = createOutput(lines);
+        for (int round = 1; round <= rounds; round++) {
+            for (Mode mode : Mode.values()) {
+                Result result = run(mode, output);
+                System.out.printf("round %d: %-12s %d lines, %d chars, %d ms, %d KB allocated, %.0f MB/s%n",
+                        round, mode, lines, result.chars, TimeUnit.NANOSECONDS.toMillis(result.nanos),
+                        result.allocated / 1024, output.length / (result.nanos / 1e9) / (1024 * 1024));
+            }
+        }
+    }
+
+    static byte[] createOutput(int lines) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (int i = 0; i < lines; i++) {
+            byte[] line = ("2026-01-01T00:00:00Z INFO line " + i + " of the output of the process\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            output.write(line, 0, line.length);
+        }
+        return output.toByteArray();
+    }
+
+    static Result run(Mode mode, byte[] output) throws IOException {
+        char[] buffer = new char[TERMINAL_BUFFER_SIZE];
+        long chars = 0;
+        long allocated = getAllocatedBytes();
+        long start = System.nanoTime();
+        try (Reader reader = createReader(mode, new ByteArrayInputStream(output), StandardCharsets.UTF_8)) {
+            int read;
+            while ((read = reader.read(buffer, 0, buffer.length)) >= 0) {
+                chars += read;
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        return new Result(chars, nanos, getAllocatedBytes() - allocated);
+    }
+
+    private static Reader createReader(Mode mode, InputStream input, Charset charset) {
+        if (mode == Mode.CHAR_BY_CHAR) {
+            return new CharByCharReader(input, charset);
+        }
+        return new ExecReader(input, charset);
+    }
+
+    private static long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * The conversion of {@link ExecReader} before it copied in bulk, reduced to {@link Reader#read(char[], int, int)}.
+     */
+    private static class CharByCharReader extends BaseInputStreamReader {
+        private final char[] readBuffer = new char[1024];
+        private final char[] buffer = new char[readBuffer.length * 2];
+        private int bufferPosition = 0;
+        private int bufferSize = 0;
+        private boolean justReadCR = false;
+
+        private CharByCharReader(@NotNull InputStream in, @NotNull Charset cs) {
+            super(in, cs);
+        }
+
+        private boolean refillBufferIfNeeded(boolean onlyIfReady) throws IOException {
+            if (bufferPosition < bufferSize || (onlyIfReady && !super.ready())) {
+                return false;
+            }
+            bufferPosition = 0;
+            bufferSize = 0;
+            int read = super.read(readBuffer, 0, readBuffer.length);
+            if (read < 0) {
+                return true; // EOF
+            }
+            int outI = 0;
+            for (int i = 0; i < read; i++) {
+                char c = readBuffer[i];
+                if (c == '\n' && !justReadCR) {
+                    buffer[outI++] = '\r';
+                }
+                buffer[outI++] = c;
+                justReadCR = c == '\r';
+            }
+            bufferSize = outI;
+            return false;
+        }
+
+        @Override
+        public int read(@NotNull char[] cbuf, int offset, int length) throws IOException {
+            if (refillBufferIfNeeded(false)) {
+                return -1; // EOF
+            }
+            int read = 0;
+            while (bufferPosition < bufferSize && read < length) {
+                int copied = Math.min(bufferSize - bufferPosition, length - read);
+                System.arraycopy(buffer, bufferPosition, cbuf, offset + read, copied);
+                read += copied;
+                bufferPosition += copied;
+                if (refillBufferIfNeeded(true)) {
+                    break;
+                }
+            }
+            return read;
+        }
+    }
+
+    static class Result {
+        private final long chars;
+        private final long nanos;
+        private final long allocated;
+
+        private Result(long chars, long nanos, long allocated) {
+            this.chars = chars;
+            this.nanos = nanos;
+            this.allocated = allocated;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecReaderTest {
+
+    @Test
+    public void read_inserts_carriage_return_before_line_feed() throws IOException {
+        // given
+        ExecReader reader = reader("yoda\nobiwan\n");
+        // when
+        String read = readAll(reader, 1024);
+        // then
+        assertThat(read).isEqualTo("yoda\r\nobiwan\r\n");
+    }
+
+    @Test
+    public void read_keeps_existing_carriage_return() throws IOException {
+        // given
+        ExecReader reader = reader("yoda\r\nobiwan\r\n");
+        // when
+        String read = readAll(reader, 1024);
+        // then
+        assertThat(read).isEqualTo("yoda\r\nobiwan\r\n");
+    }
+
+    @Test
+    public void read_converts_line_feeds_into_small_buffer() throws IOException {
+        // given
+        ExecReader reader = reader("a\n\nb\r\nc\n");
+        // when
+        String read = readAll(reader, 1);
+        // then
+        assertThat(read).isEqualTo("a\r\n\r\nb\r\nc\r\n");
+    }
+
+    @Test
+    public void read_converts_output_larger_than_buffer() throws IOException {
+        // given
+        StringBuilder output = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            output.append("line ").append(i).append('\n');
+            expected.append("line ").append(i).append("\r\n");
+        }
+        ExecReader reader = reader(output.toString());
+        // when
+        String read = readAll(reader, 777);
+        // then
+        assertThat(read).isEqualTo(expected.toString());
+    }
+
+    @Test
+    public void read_into_char_buffer_advances_position() throws IOException {
+        // given
+        ExecReader reader = reader("yoda\n");
+        CharBuffer target = CharBuffer.allocate(16);
+        target.put('>');
+        // when
+        int read = reader.read(target);
+        // then
+        assertThat(read).isEqualTo(6);
+        assertThat(target.flip().toString()).isEqualTo(">yoda\r\n");
+    }
+
+    @Test
+    public void read_returns_minus_one_at_end_of_stream() throws IOException {
+        // given
+        ExecReader reader = reader("");
+        // when
+        int read = reader.read(new char[8], 0, 8);
+        // then
+        assertThat(read).isEqualTo(-1);
+    }
+
+    private static ExecReader reader(String output) {
+        return new ExecReader(new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+    }
+
+    private static String readAll(ExecReader reader, int bufferSize) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        char[] buffer = new char[bufferSize];
+        int read;
+        while ((read = reader.read(buffer, 0, buffer.length)) != -1) {
+            builder.append(buffer, 0, read);
+        }
+        return builder.toString();
+    }
+}
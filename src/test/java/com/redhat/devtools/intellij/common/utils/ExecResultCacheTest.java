@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ExecResultCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(10);
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger executions = new AtomicInteger();
+    private final ExecResultCache cache = new ExecResultCache(2, this::load, now::get);
+
+    private String load(ExecCommand command) {
+        return command + " #" + executions.incrementAndGet();
+    }
+
+    @Test
+    public void execute_returns_cached_output() throws IOException {
+        // given
+        String first = cache.execute(new ExecCommand("oc", "version"), TTL);
+        // when
+        String second = cache.execute(new ExecCommand("oc", "version"), TTL);
+        // then
+        assertThat(second).isEqualTo(first);
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void execute_executes_again_if_entry_expired() throws IOException {
+        // given
+        cache.execute(new ExecCommand("oc", "version"), TTL);
+        now.addAndGet(TTL.toNanos());
+        // when
+        cache.execute(new ExecCommand("oc", "version"), TTL);
+        // then
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void execute_distinguishes_arguments_working_directory_and_envs() throws IOException {
+        // given
+        Map<String, String> envs = Collections.singletonMap("KUBECONFIG", "/tmp/config");
+        ExecResultCache cache = new ExecResultCache(10, this::load, now::get);
+        // when
+        cache.execute(new ExecCommand("oc", "version"), TTL);
+        cache.execute(new ExecCommand("oc", "whoami"), TTL);
+        cache.execute(new ExecCommand("oc", true, new File("/tmp"), Collections.emptyMap(), "version"), TTL);
+        cache.execute(new ExecCommand("oc", envs, "version"), TTL);
+        // then
+        assertThat(executions.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void execute_evicts_least_recently_used_entry() throws IOException {
+        // given
+        cache.execute(new ExecCommand("oc", "version"), TTL);
+        cache.execute(new ExecCommand("oc", "whoami"), TTL);
+        cache.execute(new ExecCommand("oc", "version"), TTL);
+        // when
+        cache.execute(new ExecCommand("oc", "api-resources"), TTL);
+        // then
+        assertThat(cache.size()).isEqualTo(2);
+        cache.execute(new ExecCommand("oc", "version"), TTL);
+        assertThat(executions.get()).isEqualTo(3);
+        cache.execute(new ExecCommand("oc", "whoami"), TTL);
+        assertThat(executions.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void onUpdate_invalidates_all_entries() throws IOException {
+        // given
+        cache.execute(new ExecCommand("oc", "version"), TTL);
+        // when
+        cache.onUpdate(null, null);
+        // then
+        assertThat(cache.size()).isZero();
+        cache.execute(new ExecCommand("oc", "version"), TTL);
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void execute_does_not_cache_failures() throws IOException {
+        // given
+        AtomicInteger attempts = new AtomicInteger();
+        ExecResultCache cache = new ExecResultCache(2, command -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IOException("connection refused");
+            }
+            return "v4.16";
+        }, now::get);
+        // when
+        assertThatThrownBy(() -> cache.execute(new ExecCommand("oc", "version"), TTL))
+                .isInstanceOf(IOException.class);
+        String output = cache.execute(new ExecCommand("oc", "version"), TTL);
+        // then
+        assertThat(output).isEqualTo("v4.16");
+    }
+
+    @Test
+    public void execute_shares_concurrent_executions_of_same_command() throws Exception {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecResultCache cache = new ExecResultCache(2, command -> {
+            executions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            return "v4.16";
+        }, now::get);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = threads.submit(() -> cache.execute(new ExecCommand("oc", "version"), TTL));
+            started.await(5, TimeUnit.SECONDS);
+            Future<String> second = threads.submit(() -> cache.execute(new ExecCommand("oc", "version"), TTL));
+            // when
+            release.countDown();
+            // then
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("v4.16");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("v4.16");
+            assertThat(executions.get()).isEqualTo(1);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+}
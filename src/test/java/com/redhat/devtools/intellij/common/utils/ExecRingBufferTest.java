@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecRingBufferTest {
+
+    @Test
+    public void append_drops_oldest_lines_beyond_line_capacity() {
+        // given
+        ExecRingBuffer buffer = ExecRingBuffer.ofLines(2);
+        // when
+        buffer.append("yoda\nobiwan\nluke\n");
+        // then
+        assertThat(buffer.toString()).isEqualTo("obiwan\nluke\n");
+        assertThat(buffer.getDroppedLines()).isEqualTo(1);
+    }
+
+    @Test
+    public void append_joins_line_that_is_split_across_chunks() {
+        // given
+        ExecRingBuffer buffer = ExecRingBuffer.ofLines(2);
+        // when
+        buffer.append("yo");
+        buffer.append("da\nobi");
+        buffer.append("wan\n");
+        // then
+        assertThat(buffer.toString()).isEqualTo("yoda\nobiwan\n");
+        assertThat(buffer.getLineCount()).isEqualTo(2);
+        assertThat(buffer.getDroppedLines()).isZero();
+    }
+
+    @Test
+    public void append_drops_whole_lines_beyond_char_capacity() {
+        // given
+        ExecRingBuffer buffer = ExecRingBuffer.ofChars(11);
+        // when
+        buffer.append("yoda\nobiwan\nluke");
+        // then
+        assertThat(buffer.toString()).isEqualTo("obiwan\nluke");
+        assertThat(buffer.getDroppedLines()).isEqualTo(1);
+    }
+
+    @Test
+    public void append_keeps_end_of_line_that_exceeds_char_capacity() {
+        // given
+        ExecRingBuffer buffer = ExecRingBuffer.ofChars(4);
+        // when
+        buffer.append("obiwan");
+        // then
+        assertThat(buffer.toString()).isEqualTo("iwan");
+    }
+
+    @Test
+    public void clear_resets_dropped_lines() {
+        // given
+        ExecRingBuffer buffer = ExecRingBuffer.ofLines(1);
+        buffer.append("yoda\nobiwan\n");
+        // when
+        buffer.clear();
+        // then
+        assertThat(buffer.toString()).isEmpty();
+        assertThat(buffer.getDroppedLines()).isZero();
+    }
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.redhat.devtools.intellij.common.utils.ExecScheduler.Priority.BACKGROUND;
+import static com.redhat.devtools.intellij.common.utils.ExecScheduler.Priority.USER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecSchedulerTest {
+
+    private final ExecutorService threads = Executors.newCachedThreadPool();
+    private final ExecScheduler scheduler = new ExecScheduler(1);
+
+    @After
+    public void after() {
+        threads.shutdownNow();
+    }
+
+    @Test
+    public void getKey_strips_path_and_exe_extension() {
+        // given
+        // when
+        // then
+        assertThat(ExecScheduler.getKey("/usr/local/bin/oc")).isEqualTo("oc");
+        assertThat(ExecScheduler.getKey("C:\\tools\\oc.exe")).isEqualTo("oc");
+        assertThat(ExecScheduler.getKey("oc")).isEqualTo("oc");
+    }
+
+    @Test
+    public void run_queues_invocations_beyond_max_concurrency() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> running = submit("oc", BACKGROUND, release, null);
+        waitForRunning("oc", 1);
+        // when
+        Future<?> queued = submit("oc", BACKGROUND, null, null);
+        waitForQueueDepth("oc", 1);
+        // then
+        assertThat(queued.isDone()).isFalse();
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        assertThat(scheduler.getQueueDepth("oc")).isZero();
+        assertThat(scheduler.getMetrics("oc").getStarted()).isEqualTo(2);
+    }
+
+    @Test
+    public void run_does_not_limit_other_executables() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        submit("oc", BACKGROUND, release, null);
+        waitForRunning("oc", 1);
+        // when
+        Future<?> other = submit("odo", BACKGROUND, null, null);
+        // then
+        other.get(5, TimeUnit.SECONDS);
+        release.countDown();
+    }
+
+    @Test
+    public void run_starts_user_invocations_before_background_invocations() throws Exception {
+        // given
+        List<String> started = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        submit("oc", BACKGROUND, release, null);
+        waitForRunning("oc", 1);
+        Future<?> background = submit("oc", BACKGROUND, null, () -> started.add("background"));
+        waitForQueueDepth("oc", 1);
+        Future<?> user = submit("oc", USER, null, () -> started.add("user"));
+        waitForQueueDepth("oc", 2);
+        // when
+        release.countDown();
+        // then
+        background.get(5, TimeUnit.SECONDS);
+        user.get(5, TimeUnit.SECONDS);
+        assertThat(started).containsExactly("user", "background");
+    }
+
+    @Test
+    public void setMaxConcurrency_starts_queued_invocations() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        submit("oc", BACKGROUND, release, null);
+        waitForRunning("oc", 1);
+        Future<?> queued = submit("oc", BACKGROUND, null, null);
+        waitForQueueDepth("oc", 1);
+        // when
+        scheduler.setMaxConcurrency("oc", 2);
+        // then
+        queued.get(5, TimeUnit.SECONDS);
+        release.countDown();
+    }
+
+    private Future<?> submit(String executable, ExecScheduler.Priority priority, CountDownLatch release, Runnable onStart) {
+        return threads.submit(() ->
+                scheduler.run(executable, priority, () -> {
+                    if (onStart != null) {
+                        onStart.run();
+                    }
+                    if (release != null) {
+                        await(release);
+                    }
+                    return null;
+                }));
+    }
+
+    private void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private void waitForRunning(String executable, int running) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 5000;
+        while (scheduler.getMetrics(executable).getRunning() != running
+                && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void waitForQueueDepth(String executable, int depth) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 5000;
+        while (scheduler.getQueueDepth(executable) != depth
+                && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ExecScrollbackTest {
+
+    private final ExecScrollback scrollback = new ExecScrollback(1000, 16);
+
+    @After
+    public void after() {
+        scrollback.dispose();
+    }
+
+    @Test
+    public void append_indexes_lines_split_across_texts() throws IOException {
+        // given
+        scrollback.append("yoda\nobi");
+        scrollback.append("wan\nluke");
+        // when
+        int lineCount = scrollback.getLineCount();
+        // then
+        assertThat(lineCount).isEqualTo(3);
+        assertThat(scrollback.getLine(1)).isEqualTo("obiwan\n");
+        assertThat(scrollback.getLine(2)).isEqualTo("luke");
+        assertThat(scrollback.getLineStartOffset(2)).isEqualTo(12);
+    }
+
+    @Test
+    public void getLine_reads_spilled_multibyte_text() throws IOException {
+        // given
+        scrollback.append("année\nmaître jedi\nçà et là\n");
+        // when
+        String line = scrollback.getLine(2);
+        // then
+        assertThat(scrollback.isSpilled()).isTrue();
+        assertThat(line).isEqualTo("çà et là\n");
+    }
+
+    @Test
+    public void getLineOfOffset_returns_line_that_contains_offset() throws IOException {
+        // given
+        scrollback.append("yoda\nobiwan\nluke\n");
+        // when
+        int line = scrollback.getLineOfOffset(7);
+        // then
+        assertThat(line).isEqualTo(1);
+        assertThat(scrollback.getLineOfOffset(5)).isEqualTo(1);
+        assertThat(scrollback.getLineOfOffset(4)).isZero();
+        assertThat(scrollback.getLineOfOffset(1000)).isEqualTo(3);
+    }
+
+    @Test
+    public void find_returns_offset_after_given_offset() throws IOException {
+        // given
+        scrollback.append("jedi yoda\njedi obiwan\n");
+        // when
+        long offset = scrollback.find("jedi", 1);
+        // then
+        assertThat(offset).isEqualTo(10);
+        assertThat(scrollback.find("sith", 0)).isEqualTo(-1);
+    }
+
+    @Test
+    public void clear_discards_text_and_index() throws IOException {
+        // given
+        scrollback.append("yoda\nobiwan\n");
+        // when
+        scrollback.clear();
+        // then
+        assertThat(scrollback.getLength()).isZero();
+        assertThat(scrollback.getLineCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void append_after_dispose_is_ignored() throws IOException {
+        // given
+        ExecScrollback spilling = new ExecScrollback(1000, 4);
+        spilling.append("yoda\n");
+        spilling.dispose();
+        // when
+        spilling.append("obiwan\n");
+        scrollback.dispose();
+        scrollback.append("luke\n");
+        // then
+        assertThat(spilling.getLineCount()).isEqualTo(2);
+        assertThat(spilling.getLength()).isEqualTo(5);
+        assertThat(scrollback.getLength()).isZero();
+        assertThat(scrollback.getLine(0)).isEmpty();
+    }
+
+    @Test
+    public void append_drops_oldest_lines_beyond_maximum() throws IOException {
+        // given
+        ExecScrollback capped = new ExecScrollback(3, 16);
+        // when
+        capped.append("yoda\nobiwan\nluke\nleia\n");
+        // then
+        assertThat(capped.getLineCount()).isEqualTo(5);
+        assertThat(capped.getFirstLine()).isEqualTo(2);
+        assertThat(capped.getLine(2)).isEqualTo("luke\n");
+        assertThat(capped.getLineStartOffset(3)).isEqualTo(17);
+        assertThat(capped.getLineOfOffset(0)).isEqualTo(2);
+        assertThat(capped.find("obiwan", 0)).isEqualTo(-1);
+        assertThat(capped.find("leia", 0)).isEqualTo(17);
+        assertThatThrownBy(() -> capped.getLine(1)).isInstanceOf(IndexOutOfBoundsException.class);
+        capped.dispose();
+    }
+
+    @Test
+    public void append_releases_dropped_lines_once_as_many_as_kept_were_dropped() throws IOException {
+        // given
+        ExecScrollback capped = new ExecScrollback(10, 256);
+        // when
+        for (int i = 0; i < 1000; i++) {
+            capped.append("jedi " + i + "\n");
+        }
+        // then
+        assertThat(capped.getLineCount()).isEqualTo(1001);
+        assertThat(capped.getFirstLine()).isEqualTo(991);
+        assertThat(capped.getLine(991)).isEqualTo("jedi 991\n");
+        assertThat(capped.getLine(999)).isEqualTo("jedi 999\n");
+        assertThat(capped.getLineOfOffset(capped.getLineStartOffset(995) + 2)).isEqualTo(995);
+        assertThat(capped.find("jedi 998", 0)).isEqualTo(capped.getLineStartOffset(998));
+        // the text of the dropped lines is released, less than twice the kept lines are stored
+        assertThat(capped.isSpilled()).isFalse();
+        capped.dispose();
+    }
+}
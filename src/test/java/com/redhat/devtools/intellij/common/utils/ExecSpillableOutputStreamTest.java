@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecSpillableOutputStreamTest {
+
+    private final ExecSpillableOutputStream stream = new ExecSpillableOutputStream(8);
+
+    @After
+    public void after() {
+        stream.dispose();
+    }
+
+    @Test
+    public void write_keeps_output_below_threshold_in_memory() throws IOException {
+        // given
+        // when
+        stream.write("luke".getBytes(StandardCharsets.UTF_8));
+        stream.close();
+        // then
+        assertThat(stream.isSpilled()).isFalse();
+        assertThat(stream.toString(StandardCharsets.UTF_8)).isEqualTo("luke");
+    }
+
+    @Test
+    public void write_spills_output_above_threshold() throws IOException {
+        // given
+        stream.write("luke\n".getBytes(StandardCharsets.UTF_8));
+        // when
+        stream.write("leia\n".getBytes(StandardCharsets.UTF_8));
+        stream.close();
+        // then
+        assertThat(stream.isSpilled()).isTrue();
+        assertThat(stream.getSize()).isEqualTo(10);
+        assertThat(stream.toString(StandardCharsets.UTF_8)).isEqualTo("luke\nleia\n");
+    }
+
+    @Test
+    public void getCharSequence_decodes_spilled_output() throws IOException {
+        // given
+        stream.write("dark side: ☠".getBytes(StandardCharsets.UTF_8));
+        stream.close();
+        // when
+        CharSequence chars = stream.getCharSequence(StandardCharsets.UTF_8);
+        // then
+        assertThat(chars.length()).isEqualTo(12);
+        assertThat(chars.charAt(11)).isEqualTo('☠');
+        assertThat(chars.subSequence(0, 4).toString()).isEqualTo("dark");
+    }
+
+    @Test
+    public void getCharSequence_views_spilled_ascii_output_without_decoding_it() throws IOException {
+        // given
+        stream.write("han solo\nchewbacca\n".getBytes(StandardCharsets.UTF_8));
+        stream.close();
+        // when
+        CharSequence chars = stream.getCharSequence(StandardCharsets.UTF_8);
+        // then
+        assertThat(chars).isNotInstanceOf(CharBuffer.class);
+        assertThat(chars.length()).isEqualTo(19);
+        assertThat(chars.charAt(9)).isEqualTo('c');
+        assertThat(chars.subSequence(9, 18).toString()).isEqualTo("chewbacca");
+        assertThat(chars.subSequence(9, 18).subSequence(0, 5).toString()).isEqualTo("chewb");
+        assertThat(chars.toString()).isEqualTo("han solo\nchewbacca\n");
+    }
+
+    @Test
+    public void getInputStream_reads_spilled_output() throws IOException {
+        // given
+        stream.write("han solo\nchewbacca\n".getBytes(StandardCharsets.UTF_8));
+        stream.close();
+        // when
+        byte[] bytes;
+        try (InputStream input = stream.getInputStream()) {
+            bytes = input.readAllBytes();
+        }
+        // then
+        assertThat(new String(bytes, StandardCharsets.UTF_8)).isEqualTo("han solo\nchewbacca\n");
+    }
+}
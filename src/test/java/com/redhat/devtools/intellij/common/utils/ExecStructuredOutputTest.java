@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.redhat.devtools.intellij.common.model.GenericResource;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecStructuredOutputTest {
+
+    private final List<JsonNode> items = new ArrayList<>();
+
+    @Test
+    public void parse_hands_over_items_of_json_list() throws IOException {
+        // given
+        String json = "{ \"apiVersion\": \"v1\", \"kind\": \"List\", \"items\": ["
+                + "{ \"kind\": \"Pod\", \"metadata\": { \"name\": \"yoda\" } },"
+                + "{ \"kind\": \"Pod\", \"metadata\": { \"name\": \"obiwan\" } }"
+                + "] }";
+        // when
+        int count = parse(json);
+        // then
+        assertThat(count).isEqualTo(2);
+        assertThat(items)
+                .extracting(item -> item.get("metadata").get("name").asText())
+                .containsExactly("yoda", "obiwan");
+    }
+
+    @Test
+    public void parse_hands_over_elements_of_json_array() throws IOException {
+        // given
+        String json = "[ { \"name\": \"luke\" }, { \"name\": \"leia\" } ]";
+        // when
+        int count = parse(json);
+        // then
+        assertThat(count).isEqualTo(2);
+        assertThat(items.get(1).get("name").asText()).isEqualTo("leia");
+    }
+
+    @Test
+    public void parse_hands_over_each_yaml_document() throws IOException {
+        // given
+        String yaml = "kind: Pod\nmetadata:\n  name: yoda\n---\nkind: Service\nmetadata:\n  name: jedi\n";
+        // when
+        int count = parse(yaml);
+        // then
+        assertThat(count).isEqualTo(2);
+        assertThat(items)
+                .extracting(item -> item.get("kind").asText())
+                .containsExactly("Pod", "Service");
+    }
+
+    @Test
+    public void parse_hands_over_object_without_items() throws IOException {
+        // given
+        String yaml = "kind: Pod\nmetadata:\n  name: yoda\nspec:\n  containers: []\n";
+        // when
+        parse(yaml);
+        // then
+        assertThat(items).hasSize(1);
+        assertThat(items.get(0).get("spec").get("containers").isArray()).isTrue();
+    }
+
+    @Test
+    public void convert_returns_generic_resource() throws IOException {
+        // given
+        parse("{ \"apiVersion\": \"v1\", \"kind\": \"Pod\", \"metadata\": { \"name\": \"yoda\" }, \"spec\": {} }");
+        // when
+        GenericResource resource = ExecStructuredOutput.convert(items.get(0), GenericResource.class);
+        // then
+        assertThat(resource.getKind()).isEqualTo("Pod");
+        assertThat(resource.getName()).isEqualTo("yoda");
+    }
+
+    private int parse(String output) throws IOException {
+        return ExecStructuredOutput.parse(new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8)), items::add);
+    }
+}
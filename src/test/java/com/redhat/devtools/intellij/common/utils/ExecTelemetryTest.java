@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecTelemetryTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final ExecTelemetry telemetry = new ExecTelemetry(now::get);
+    private final List<ExecTelemetry.Record> records = new ArrayList<>();
+
+    @Test
+    public void finish_notifies_listener_with_timings() throws IOException {
+        // given
+        telemetry.addListener(records::add);
+        ExecTelemetry.Recorder recorder = telemetry.start(ExecTelemetry.Mode.EXECUTE, "/usr/local/bin/oc");
+        OutputStream out = recorder.count(new ByteArrayOutputStream());
+        // when
+        advance(2);
+        recorder.spawned();
+        advance(3);
+        out.write("yoda".getBytes());
+        advance(5);
+        recorder.finish(0, null);
+        // then
+        assertThat(records).hasSize(1);
+        ExecTelemetry.Record record = records.get(0);
+        assertThat(record.getExecutable()).isEqualTo("/usr/local/bin/oc");
+        assertThat(record.getSpawnLatency()).isEqualTo(Duration.ofMillis(2));
+        assertThat(record.getTimeToFirstByte()).isEqualTo(Duration.ofMillis(5));
+        assertThat(record.getDuration()).isEqualTo(Duration.ofMillis(10));
+        assertThat(record.getBytesRead()).isEqualTo(4);
+        assertThat(record.getExitCode()).isEqualTo(0);
+    }
+
+    @Test
+    public void finish_records_only_once() {
+        // given
+        telemetry.addListener(records::add);
+        ExecTelemetry.Recorder recorder = telemetry.start(ExecTelemetry.Mode.RESULT, "oc");
+        // when
+        recorder.finish(1, null);
+        recorder.finish(null, new IOException("boom"));
+        // then
+        assertThat(records).hasSize(1);
+        assertThat(records.get(0).getError()).isNull();
+    }
+
+    @Test
+    public void start_picks_up_queue_wait_of_calling_thread() {
+        // given
+        telemetry.addListener(records::add);
+        ExecTelemetry.setQueueWait(TimeUnit.MILLISECONDS.toNanos(42));
+        // when
+        try {
+            telemetry.start(ExecTelemetry.Mode.EXECUTE, "oc").finish(0, null);
+        } finally {
+            ExecTelemetry.clearQueueWait();
+        }
+        // then
+        assertThat(records.get(0).getQueueWait()).isEqualTo(Duration.ofMillis(42));
+    }
+
+    @Test
+    public void histogram_returns_upper_bound_of_percentile_bucket() {
+        // given
+        record("oc", 3);
+        record("oc.exe", 3);
+        record("oc", 100);
+        // when
+        ExecTelemetry.Histogram histogram = telemetry.getHistogram("oc");
+        // then
+        assertThat(histogram.getCount()).isEqualTo(3);
+        assertThat(histogram.getPercentile(50)).isEqualTo(Duration.ofMillis(4));
+        assertThat(histogram.getPercentile(99)).isEqualTo(Duration.ofMillis(128));
+    }
+
+    @Test
+    public void histogram_drops_executions_outside_of_window() {
+        // given
+        record("oc", 3);
+        // when
+        advance(TimeUnit.MINUTES.toMillis(ExecTelemetry.WINDOW_MINUTES));
+        // then
+        assertThat(telemetry.getHistogram("oc").getCount()).isZero();
+    }
+
+    private void record(String executable, long durationMillis) {
+        ExecTelemetry.Recorder recorder = telemetry.start(ExecTelemetry.Mode.EXECUTE, executable);
+        advance(durationMillis);
+        recorder.finish(0, null);
+    }
+
+    private void advance(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
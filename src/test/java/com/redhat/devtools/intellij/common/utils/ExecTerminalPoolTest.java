@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.util.Disposer;
+import com.intellij.testFramework.LightPlatformTestCase;
+import com.intellij.testFramework.PlatformTestUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExecTerminalPoolTest extends LightPlatformTestCase {
+
+    private ExecTerminalPool pool;
+    private final List<CommonTerminalExecutionConsole> consoles = new ArrayList<>();
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        pool = ExecTerminalPool.getInstance(getProject());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            Disposer.dispose(pool);
+            for (CommonTerminalExecutionConsole console : consoles) {
+                if (!console.isDisposed()) {
+                    Disposer.dispose(console);
+                }
+            }
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testThatTabTitlesAreNumbered() {
+        assertEquals("yoda(1)", ExecTerminalPool.nextTabTitle("yoda", List.of()));
+        assertEquals("yoda(3)", ExecTerminalPool.nextTabTitle("yoda", List.of("yoda(2)", "obiwan(5)")));
+        assertEquals("obiwan(6)", ExecTerminalPool.nextTabTitle("obiwan", List.of("yoda(2)", "obiwan(5)")));
+        assertEquals("oc logs(2)", ExecTerminalPool.nextTabTitle("oc logs", List.of("oc logs(1)", "oc get(4)")));
+    }
+
+    public void testThatTabNumbersOfClosedTabsAreReused() {
+        assertEquals("yoda(1)", pool.nextTabTitle("yoda"));
+        // no tab was shown for the first title
+        assertEquals("yoda(1)", pool.nextTabTitle("yoda"));
+    }
+
+    public void testThatIdleConsoleWithSameTitleIsReused() {
+        CommonTerminalExecutionConsole yoda = acquire("yoda");
+        pool.release(yoda);
+        assertSame(yoda, acquire("yoda"));
+        assertNotSame(yoda, acquire("yoda"));
+        assertEquals(2, pool.size());
+    }
+
+    public void testThatLeastRecentlyUsedIdleConsolesBeyondMaxSizeAreClosed() {
+        List<CommonTerminalExecutionConsole> acquired = new ArrayList<>();
+        for (int i = 0; i < ExecTerminalPool.DEFAULT_MAX_SIZE; i++) {
+            acquired.add(acquire("jedi" + i));
+        }
+        // the least recently used console stays busy
+        for (int i = 1; i < acquired.size(); i++) {
+            pool.release(acquired.get(i));
+        }
+        acquire("luke");
+        PlatformTestUtil.dispatchAllInvocationEventsInIdeEventQueue();
+        assertEquals(ExecTerminalPool.DEFAULT_MAX_SIZE, pool.size());
+        assertFalse(acquired.get(0).isDisposed());
+        assertTrue(acquired.get(1).isDisposed());
+        assertFalse(acquired.get(2).isDisposed());
+    }
+
+    public void testThatBusyConsolesAreNotClosedBeyondMaxSize() {
+        for (int i = 0; i <= ExecTerminalPool.DEFAULT_MAX_SIZE; i++) {
+            acquire("jedi" + i);
+        }
+        PlatformTestUtil.dispatchAllInvocationEventsInIdeEventQueue();
+        assertEquals(ExecTerminalPool.DEFAULT_MAX_SIZE + 1, pool.size());
+        assertTrue(consoles.stream().noneMatch(CommonTerminalExecutionConsole::isDisposed));
+    }
+
+    public void testThatIdleConsolesAreClosedAfterTimeout() {
+        CommonTerminalExecutionConsole yoda = acquire("yoda");
+        CommonTerminalExecutionConsole obiwan = acquire("obiwan");
+        pool.release(yoda);
+        pool.sweep(System.currentTimeMillis() + ExecTerminalPool.IDLE_TIMEOUT_MILLIS + 1);
+        PlatformTestUtil.dispatchAllInvocationEventsInIdeEventQueue();
+        assertEquals(1, pool.size());
+        assertTrue(yoda.isDisposed());
+        assertFalse(obiwan.isDisposed());
+    }
+
+    public void testThatConsolesClosedByUserAreDropped() {
+        CommonTerminalExecutionConsole yoda = acquire("yoda");
+        acquire("obiwan");
+        pool.release(yoda);
+        Disposer.dispose(yoda);
+        pool.sweep(System.currentTimeMillis());
+        assertEquals(1, pool.size());
+        assertNotSame(yoda, acquire("yoda"));
+    }
+
+    private CommonTerminalExecutionConsole acquire(String title) {
+        CommonTerminalExecutionConsole console = pool.acquire(title);
+        consoles.add(console);
+        return console;
+    }
+}
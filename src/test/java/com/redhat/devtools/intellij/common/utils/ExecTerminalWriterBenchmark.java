@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link ExecTerminalWriter}: writes colored lines like a chatty process, ex.
+ * {@code oc logs -f}, into a sink that counts the appends, and reports the appends and the elapsed time per round.
+ * The first rounds warm up the JIT. It is not run with the tests, run it with
+ * {@code java ... ExecTerminalWriterBenchmark [lines] [rounds]}.
+ */
+public class ExecTerminalWriterBenchmark {
+
+    private static final int DEFAULT_LINES = 1_000_000;
+    private static final int DEFAULT_ROUNDS = 5;
+    private static final Color[] COLORS = { null, Color.RED, null, new Color(0x3F, 0x7F, 0xBF) };
+
+    public static void main(String[] args) {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_LINES;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+        for (int round = 1; round <= rounds; round++) {
+            Result result = run(lines);
+            System.out.printf("round %d: %d lines, %d appends, %d chars, %d ms, %.0f lines/s%n",
+                    round, lines, result.appends, result.chars, TimeUnit.NANOSECONDS.toMillis(result.nanos),
+                    lines / (result.nanos / 1e9));
+        }
+    }
+
+    static Result run(int lines) {
+        CountingSink sink = new CountingSink();
+        ExecTerminalWriter writer = new ExecTerminalWriter(sink);
+        long start = System.nanoTime();
+        for (int i = 0; i < lines; i++) {
+            writer.write("2026-01-01T00:00:00Z INFO line " + i + " of the output of the process\n",
+                    COLORS[i % COLORS.length], true);
+        }
+        writer.flush();
+        return new Result(sink.appends, sink.chars, System.nanoTime() - start);
+    }
+
+    private static class CountingSink implements ExecTerminalWriter.Sink {
+        private long appends = 0;
+        private long chars = 0;
+
+        @Override
+        public void append(String text) {
+            // synchronized by the flush lock of the writer
+            appends++;
+            chars += text.length();
+        }
+    }
+
+    static class Result {
+        private final long appends;
+        private final long chars;
+        private final long nanos;
+
+        private Result(long appends, long chars, long nanos) {
+            this.appends = appends;
+            this.chars = chars;
+            this.nanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.junit.Test;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecTerminalWriterTest {
+
+    private final List<String> appended = new ArrayList<>();
+    private final ExecTerminalWriter writer = new ExecTerminalWriter(appended::add, TimeUnit.HOURS.toMillis(1));
+
+    @Test
+    public void appendCRLF_converts_all_line_separators() {
+        // given
+        StringBuilder builder = new StringBuilder();
+        // when
+        boolean lastCR = ExecTerminalWriter.appendCRLF(builder, "yoda\nobiwan\r\nluke\rleia", false);
+        // then
+        assertThat(builder).hasToString("yoda\r\nobiwan\r\nluke\r\nleia");
+        assertThat(lastCR).isFalse();
+    }
+
+    @Test
+    public void appendCRLF_keeps_carriage_return_and_line_feed_split_across_texts() {
+        // given
+        StringBuilder builder = new StringBuilder();
+        // when
+        boolean lastCR = ExecTerminalWriter.appendCRLF(builder, "yoda\r", false);
+        ExecTerminalWriter.appendCRLF(builder, "\nobiwan", lastCR);
+        // then
+        assertThat(lastCR).isTrue();
+        assertThat(builder).hasToString("yoda\r\nobiwan");
+    }
+
+    @Test
+    public void flush_appends_coalesced_text_at_once() {
+        // given
+        writer.write("yoda\n", null, true);
+        writer.write("obiwan", Color.RED, false);
+        // when
+        writer.flush();
+        // then
+        assertThat(appended).containsExactly("yoda\r\n"
+                + ExecTerminalWriter.encodeForeground(Color.RED) + "obiwan" + ExecTerminalWriter.RESET_FOREGROUND);
+    }
+
+    @Test
+    public void encodeForeground_returns_cached_sequence() {
+        // given
+        String sequence = ExecTerminalWriter.encodeForeground(new Color(1, 2, 3));
+        // when
+        String cached = ExecTerminalWriter.encodeForeground(new Color(1, 2, 3));
+        // then
+        assertThat(sequence).isEqualTo("\u001b[38;2;1;2;3m");
+        assertThat(cached).isSameAs(sequence);
+    }
+
+    @Test
+    public void flush_defers_text_while_paused() {
+        // given
+        writer.setPaused(true);
+        writer.write("yoda", null, true);
+        // when
+        writer.flush();
+        // then
+        assertThat(appended).isEmpty();
+        assertThat(writer.hasPending()).isTrue();
+    }
+
+    @Test
+    public void setPaused_false_appends_deferred_text_and_runs_waiting_runnables() {
+        // given
+        List<String> ran = new ArrayList<>();
+        writer.setPaused(true);
+        writer.write("yoda", null, true);
+        writer.whenFlushed(() -> ran.add("obiwan"));
+        // when
+        writer.setPaused(false);
+        // then
+        assertThat(appended).containsExactly("yoda");
+        assertThat(ran).containsExactly("obiwan");
+    }
+
+    @Test
+    public void write_blocks_while_paused_and_deferred_text_is_full() throws InterruptedException {
+        // given
+        writer.setPaused(true);
+        writer.write(repeat('x', ExecTerminalWriter.MAX_DEFERRED_CHARS), null, false);
+        Thread producer = new Thread(() -> writer.write("yoda", null, false, true));
+        producer.start();
+        producer.join(200);
+        assertThat(producer.isAlive()).isTrue();
+        // when
+        writer.setPaused(false);
+        producer.join(5000);
+        // then
+        assertThat(producer.isAlive()).isFalse();
+    }
+
+    @Test
+    public void write_stops_blocking_once_it_may_no_longer_block() throws InterruptedException {
+        // given
+        AtomicBoolean alive = new AtomicBoolean(true);
+        writer.setPaused(true);
+        writer.write(repeat('x', ExecTerminalWriter.MAX_DEFERRED_CHARS), null, false);
+        Thread producer = new Thread(() -> writer.write("yoda", null, false, alive::get));
+        producer.start();
+        producer.join(200);
+        assertThat(producer.isAlive()).isTrue();
+        // when
+        alive.set(false);
+        producer.join(5000);
+        // then
+        assertThat(producer.isAlive()).isFalse();
+        assertThat(writer.isPaused()).isTrue();
+    }
+
+    @Test
+    public void isFull_is_true_while_paused_and_deferred_text_is_at_maximum() {
+        // given
+        writer.setPaused(true);
+        writer.write(repeat('x', ExecTerminalWriter.MAX_DEFERRED_CHARS - 1), null, false);
+        assertThat(writer.isFull()).isFalse();
+        // when
+        writer.write("x", null, false);
+        // then
+        assertThat(writer.isFull()).isTrue();
+        writer.setPaused(false);
+        assertThat(writer.isFull()).isFalse();
+    }
+
+    @Test
+    public void clear_discards_pending_text() {
+        // given
+        writer.write("yoda", null, true);
+        // when
+        writer.clear();
+        writer.flush();
+        // then
+        assertThat(appended).isEmpty();
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExecUIPublisherTest {
+
+    private final ExecutorService ui = Executors.newSingleThreadExecutor();
+    private final List<Update> updates = new CopyOnWriteArrayList<>();
+
+    @After
+    public void after() {
+        ui.shutdownNow();
+    }
+
+    @Test
+    public void append_publishes_at_most_max_updates_per_second() throws InterruptedException {
+        // given
+        ExecUIPublisher publisher = publisher(10);
+        StringBuilder appended = new StringBuilder();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        // when
+        for (int i = 0; System.nanoTime() < end; i++) {
+            String text = "yoda " + i + "\n";
+            appended.append(text);
+            publisher.append(text);
+            Thread.sleep(1);
+        }
+        // then
+        waitFor(() -> published().length() == appended.length());
+        assertThat(published()).isEqualTo(appended.toString());
+        // the first update is published at once, the following at most every 100 ms
+        assertThat(updates.size()).isBetween(2, 12);
+        for (int i = 1; i < updates.size(); i++) {
+            assertThat(updates.get(i).nanos - updates.get(i - 1).nanos)
+                    .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(95));
+        }
+    }
+
+    @Test
+    public void append_coalesces_text_until_next_update() throws InterruptedException {
+        // given
+        ExecUIPublisher publisher = publisher(5);
+        publisher.append("yoda\n");
+        waitFor(() -> updates.size() == 1);
+        // when
+        publisher.append("obiwan\n");
+        publisher.append("luke\n");
+        publisher.append("leia\n");
+        // then
+        waitFor(() -> updates.size() == 2);
+        assertThat(updates.stream().map(update -> update.text).collect(Collectors.toList()))
+                .containsExactly("yoda\n", "obiwan\nluke\nleia\n");
+    }
+
+    @Test
+    public void flush_publishes_pending_text_without_waiting_for_next_update() throws InterruptedException {
+        // given
+        ExecUIPublisher publisher = publisher(1);
+        publisher.append("yoda\n");
+        waitFor(() -> updates.size() == 1);
+        publisher.append("obiwan\n");
+        long flushed = System.nanoTime();
+        // when
+        publisher.flush();
+        // then
+        waitFor(() -> updates.size() == 2);
+        assertThat(updates.get(1).text).isEqualTo("obiwan\n");
+        assertThat(updates.get(1).nanos - flushed).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+        // the update that was scheduled before finds nothing to publish
+        Thread.sleep(1200);
+        assertThat(updates).hasSize(2);
+    }
+
+    @Test
+    public void flush_does_nothing_if_no_text_is_pending() throws InterruptedException {
+        // given
+        ExecUIPublisher publisher = publisher(1);
+        publisher.append("yoda\n");
+        waitFor(() -> updates.size() == 1);
+        // when
+        publisher.flush();
+        Thread.sleep(100);
+        // then
+        assertThat(updates).hasSize(1);
+    }
+
+    private ExecUIPublisher publisher(int maxUpdatesPerSecond) {
+        return new ExecUIPublisher(text -> updates.add(new Update(text, System.nanoTime())), maxUpdatesPerSecond, ui);
+    }
+
+    private String published() {
+        return updates.stream().map(update -> update.text).collect(Collectors.joining());
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static class Update {
+        private final String text;
+        private final long nanos;
+
+        private Update(String text, long nanos) {
+            this.text = text;
+            this.nanos = nanos;
+        }
+    }
+}
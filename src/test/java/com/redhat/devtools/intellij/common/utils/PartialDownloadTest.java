@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PartialDownloadTest {
+
+    private static final String URL = "https://tool.com/tool/v1.0.0/tool-linux-amd64.tar.gz";
+
+    private Path directory;
+    private Path target;
+
+    @Before
+    public void before() throws IOException {
+        directory = Files.createTempDirectory("partial-download");
+        target = directory.resolve("tool-linux-amd64.tar.gz");
+    }
+
+    @After
+    public void after() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Test
+    public void getResumeOffset_returns_size_of_partial_file_with_validator() throws IOException {
+        // given
+        PartialDownload part = new PartialDownload(target, URL);
+        part.reset(connection("\"v1\"", 10));
+        part.store();
+        Files.write(part.getFile(), new byte[4]);
+        // when
+        long offset = new PartialDownload(target, URL).getResumeOffset();
+        // then
+        assertThat(offset).isEqualTo(4);
+    }
+
+    @Test
+    public void getResumeOffset_returns_0_without_validator() throws IOException {
+        // given
+        PartialDownload part = new PartialDownload(target, URL);
+        part.reset(connection("W/\"v1\"", 10));
+        part.store();
+        Files.write(part.getFile(), new byte[4]);
+        // when
+        long offset = new PartialDownload(target, URL).getResumeOffset();
+        // then
+        assertThat(offset).isZero();
+    }
+
+    @Test
+    public void getResumeOffset_returns_0_for_other_url() throws IOException {
+        // given
+        PartialDownload part = new PartialDownload(target, URL);
+        part.reset(connection("\"v1\"", 10));
+        part.store();
+        Files.write(part.getFile(), new byte[4]);
+        // when
+        long offset = new PartialDownload(target, URL + ".sha256").getResumeOffset();
+        // then
+        assertThat(offset).isZero();
+    }
+
+    @Test
+    public void getResumeOffset_returns_end_of_completed_segments() throws IOException {
+        // given
+        PartialDownload part = new PartialDownload(target, URL);
+        part.reset(connection("\"v1\"", 30));
+        part.setSegment(0, 10);
+        part.setSegment(10, 15);
+        part.setSegment(20, 30);
+        part.store();
+        Files.write(part.getFile(), new byte[30]);
+        // when
+        PartialDownload loaded = new PartialDownload(target, URL);
+        // then
+        assertThat(loaded.getSegments()).containsEntry(0L, 10L).containsEntry(10L, 15L).containsEntry(20L, 30L);
+        assertThat(loaded.getSegmentEnd(10)).isEqualTo(19);
+        assertThat(loaded.getResumeOffset()).isEqualTo(15);
+    }
+
+    @Test
+    public void isComplete_returns_true_if_partial_file_holds_whole_content() throws IOException {
+        // given
+        PartialDownload part = new PartialDownload(target, URL);
+        part.reset(connection("\"v1\"", 10));
+        part.store();
+        Files.write(part.getFile(), new byte[10]);
+        // when
+        PartialDownload resumed = new PartialDownload(target, URL);
+        // then
+        assertThat(resumed.isComplete()).isTrue();
+        assertThat(resumed.getResumeOffset()).isEqualTo(resumed.getLength());
+    }
+
+    @Test
+    public void isComplete_returns_false_if_partial_file_is_short_or_length_unknown() throws IOException {
+        // given
+        PartialDownload part = new PartialDownload(target, URL);
+        part.reset(connection("\"v1\"", 10));
+        part.store();
+        Files.write(part.getFile(), new byte[9]);
+        PartialDownload unknown = new PartialDownload(directory.resolve("unknown"), URL);
+        unknown.reset(connection("\"v1\"", -1));
+        unknown.store();
+        Files.write(unknown.getFile(), new byte[0]);
+        // when
+        PartialDownload resumed = new PartialDownload(target, URL);
+        // then
+        assertThat(resumed.isComplete()).isFalse();
+        assertThat(new PartialDownload(directory.resolve("unknown"), URL).isComplete()).isFalse();
+    }
+
+    @Test
+    public void matches_returns_false_if_content_changed() throws IOException {
+        // given
+        PartialDownload part = new PartialDownload(target, URL);
+        part.reset(connection("\"v1\"", 10));
+        // when
+        // then
+        assertThat(part.matches(connection("\"v1\"", 10))).isTrue();
+        assertThat(part.matches(connection("\"v2\"", 10))).isFalse();
+        assertThat(part.matches(connection("\"v1\"", 11))).isFalse();
+    }
+
+    @Test
+    public void commit_moves_partial_file_to_target_and_discards_state() throws IOException {
+        // given
+        PartialDownload part = new PartialDownload(target, URL);
+        part.reset(connection("\"v1\"", 4));
+        part.store();
+        Files.write(part.getFile(), new byte[4]);
+        // when
+        part.commit();
+        // then
+        assertThat(target).exists().hasBinaryContent(new byte[4]);
+        assertThat(part.getFile()).doesNotExist();
+        assertThat(target.resolveSibling(target.getFileName() + PartialDownload.METADATA_SUFFIX)).doesNotExist();
+    }
+
+    private static URLConnection connection(String etag, long length) throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("ETag", etag);
+        return new URLConnection(new URL(URL)) {
+            @Override
+            public void connect() {
+            }
+
+            @Override
+            public String getHeaderField(String name) {
+                return headers.get(name);
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return length;
+            }
+        };
+    }
+}
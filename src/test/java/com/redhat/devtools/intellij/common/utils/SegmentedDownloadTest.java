@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package com.redhat.devtools.intellij.common.utils;
+
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.testFramework.LightPlatformTestCase;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.FileUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SegmentedDownloadTest extends LightPlatformTestCase {
+
+    private final byte[] data = new byte[(int) (2 * SegmentedDownload.MIN_SEGMENT_SIZE) + 13];
+    private final AtomicInteger rangeRequests = new AtomicInteger();
+    private HttpServer server;
+    private Path directory;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        new Random(42).nextBytes(data);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/ranges", exchange -> respond(exchange, true));
+        server.createContext("/noranges", exchange -> respond(exchange, false));
+        server.start();
+        directory = Files.createTempDirectory("segmented-download");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.stop(0);
+        FileUtils.deleteDirectory(directory.toFile());
+        super.tearDown();
+    }
+
+    public void testThatFileIsDownloadedBySegmentsIfServerAcceptsRanges() throws IOException {
+        // given
+        PartialDownload part = new PartialDownload(directory.resolve("file"), url("/ranges"));
+        // when
+        boolean downloaded = new SegmentedDownload(url("/ranges"), part, new EmptyProgressIndicator(), null).download();
+        // then
+        assertTrue(downloaded);
+        assertEquals(2, rangeRequests.get());
+        assertTrue(Arrays.equals(data, Files.readAllBytes(part.getFile())));
+    }
+
+    public void testThatFileIsHashedWhileDownloadedBySegments() throws IOException, NoSuchAlgorithmException {
+        // given
+        PartialDownload part = new PartialDownload(directory.resolve("file"), url("/ranges"));
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        // when
+        boolean downloaded = new SegmentedDownload(url("/ranges"), part, new EmptyProgressIndicator(), digest, 3).download();
+        // then
+        assertTrue(downloaded);
+        assertEquals(2, rangeRequests.get());
+        assertTrue(Arrays.equals(MessageDigest.getInstance("SHA-256").digest(data), digest.digest()));
+    }
+
+    public void testThatFileIsNotDownloadedBySegmentsIfServerDoesNotAcceptRanges() throws IOException {
+        // given
+        PartialDownload part = new PartialDownload(directory.resolve("file"), url("/noranges"));
+        // when
+        boolean downloaded = new SegmentedDownload(url("/noranges"), part, new EmptyProgressIndicator(), null).download();
+        // then
+        assertFalse(downloaded);
+        assertEquals(0, rangeRequests.get());
+    }
+
+    public void testThatFileUrlIsNotDownloadedBySegments() throws IOException {
+        // given
+        Path source = Files.write(directory.resolve("source"), data);
+        String url = source.toUri().toString();
+        // when
+        boolean downloaded = new SegmentedDownload(url, new PartialDownload(directory.resolve("file"), url),
+                new EmptyProgressIndicator(), null).download();
+        // then
+        assertFalse(downloaded);
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private void respond(HttpExchange exchange, boolean acceptRanges) throws IOException {
+        if (acceptRanges) {
+            exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+        }
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().add("Content-Length", String.valueOf(data.length));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+        int start = 0;
+        int end = data.length - 1;
+        int status = 200;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if (acceptRanges
+                && range != null) {
+            String[] bounds = range.substring("bytes=".length()).split("-");
+            start = Integer.parseInt(bounds[0]);
+            end = Integer.parseInt(bounds[1]);
+            status = 206;
+            exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + data.length);
+            rangeRequests.incrementAndGet();
+        }
+        exchange.sendResponseHeaders(status, end - start + 1);
+        exchange.getResponseBody().write(data, start, end - start + 1);
+        exchange.close();
+    }
+}